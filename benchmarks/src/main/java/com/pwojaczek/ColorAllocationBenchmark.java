@@ -0,0 +1,76 @@
+package com.pwojaczek;
+
+import com.pwojaczek.pairing.ColorAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of single color matchup and rematch check - the innermost operation of pairing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ColorAllocationBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"1024"})
+    private int players;
+
+    @Param({"5", "9", "13"})
+    private int rounds;
+
+    @Param({"0.3"})
+    private double drawRate;
+
+    private ColorAllocator colorAllocator;
+    private Player[] players1;
+    private Player[] players2;
+
+    @Setup
+    public void setUp() {
+        List<Player> field = SyntheticField.players(players);
+        SyntheticField.play(field, rounds - 1, drawRate);
+        colorAllocator = new ColorAllocator();
+        players1 = new Player[PAIRS];
+        players2 = new Player[PAIRS];
+        Random random = new Random(SyntheticField.SEED);
+        for (int i = 0; i < PAIRS; i++) {
+            players1[i] = field.get(random.nextInt(field.size()));
+            players2[i] = field.get(random.nextInt(field.size()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void getPlayersColorMatchup(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(colorAllocator.getPlayersColorMatchup(players1[i], players2[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void playedWith(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(players1[i].playedWith(players2[i]));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.pwojaczek;
+
+import com.pwojaczek.pairing.MatchingPairingEngine;
+import com.pwojaczek.pairing.PairingEngine;
+import com.pwojaczek.pairing.PairingResult;
+import com.pwojaczek.pairing.ParallelGraphPairingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of pairing the last round of a tournament, which is the hardest round to pair.
+ * Fields of 100000 players can be measured with "-p players=100000".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PairingBenchmark {
+
+    @Param({"64", "1024", "10000"})
+    private int players;
+
+    @Param({"5", "9", "13"})
+    private int rounds;
+
+    @Param({"0.3"})
+    private double drawRate;
+
+    @Param({"false", "true"})
+    private boolean oddField;
+
+    @Param({"matching", "parallelGraph"})
+    private String engine;
+
+    private PairingEngine pairingEngine;
+    private List<Player> orderedPlayers;
+
+    @Setup
+    public void setUp() {
+        List<Player> field = SyntheticField.players(oddField ? players + 1 : players);
+        SyntheticField.play(field, rounds - 1, drawRate);
+        orderedPlayers = SyntheticField.nextRoundOrder(field);
+        pairingEngine = engine.equals("parallelGraph") ? new ParallelGraphPairingEngine() : new MatchingPairingEngine();
+    }
+
+    @Benchmark
+    public PairingResult pairLastRound() {
+        return pairingEngine.pair(orderedPlayers);
+    }
+}
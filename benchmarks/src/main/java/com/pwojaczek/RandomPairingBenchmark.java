@@ -0,0 +1,49 @@
+package com.pwojaczek;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of random first round pairing. Every invocation pairs fresh field, because pairing adds matches to players.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RandomPairingBenchmark {
+
+    @Param({"64", "1024", "10000", "100000"})
+    private int players;
+
+    @Param({"false", "true"})
+    private boolean oddField;
+
+    private List<Player> field;
+    private MatchService matchService;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        field = SyntheticField.players(oddField ? players + 1 : players);
+        matchService = new MatchService(1, TournamentType.AUTOMATIC, field);
+    }
+
+    @Benchmark
+    public List<Match> createPairsRandom() {
+        return matchService.createPairsRandom();
+    }
+}
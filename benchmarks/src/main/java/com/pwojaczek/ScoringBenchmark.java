@@ -0,0 +1,58 @@
+package com.pwojaczek;
+
+import com.pwojaczek.pairing.PairingResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording points of a whole round. Scores keep growing between invocations, which does not change the work done.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ScoringBenchmark {
+
+    @Param({"64", "1024", "10000"})
+    private int players;
+
+    @Param({"0.3"})
+    private double drawRate;
+
+    private MatchService matchService;
+    private List<Match> matches;
+
+    @Setup
+    public void setUp() {
+        List<Player> field = SyntheticField.players(players);
+        matchService = SyntheticField.play(field, 1, drawRate);
+        PairingResult pairingResult = matchService.createPairs();
+        matches = pairingResult.getMatches();
+        Random random = new Random(SyntheticField.SEED);
+        for (Match match : matches) {
+            if (match.getOutcome() != OutcomeEnum.FREE_POINT) {
+                match.setOutcome(SyntheticField.randomOutcome(random, drawRate));
+            }
+        }
+    }
+
+    @Benchmark
+    public void appendPointsForMatches() {
+        matchService.appendPointsForMatches(matches);
+    }
+}
@@ -0,0 +1,73 @@
+package com.pwojaczek;
+
+import com.pwojaczek.pairing.PairingResult;
+import com.pwojaczek.pairing.ParallelGraphPairingEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generator of synthetic tournament fields for benchmarks.
+ * Field is paired with score group pairing engine, which scales to the biggest fields, and outcomes are drawn from seeded random,
+ * so the same parameters give the same players, scores and histories on every run and every commit.
+ */
+final class SyntheticField {
+    static final long SEED = 20190101L;
+
+    private SyntheticField() {
+    }
+
+    static List<Player> players(int count) {
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(new Player(i, String.format("Player %06d", i)));
+        }
+        return players;
+    }
+
+    /**
+     * Method plays given count of rounds and returns tournament ready to pair next round.
+     */
+    static MatchService play(List<Player> players, int playedRounds, double drawRate) {
+        MatchService matchService = new MatchService(new ParallelGraphPairingEngine(), playedRounds + 1, TournamentType.AUTOMATIC, players);
+        Random random = new Random(SEED);
+        for (int round = 1; round <= playedRounds; round++) {
+            PairingResult pairingResult = matchService.createPairs();
+            if (!pairingResult.isComplete()) {
+                throw new IllegalStateException("Synthetic field could not be paired in round " + round);
+            }
+            for (Match match : pairingResult.getMatches()) {
+                if (match.getOutcome() != OutcomeEnum.FREE_POINT) {
+                    match.setOutcome(randomOutcome(random, drawRate));
+                }
+            }
+            matchService.appendPointsForMatches(pairingResult.getMatches());
+        }
+        return matchService;
+    }
+
+    /**
+     * Players of the next round in pairing order, without player who would get free point.
+     */
+    static List<Player> nextRoundOrder(List<Player> players) {
+        List<Player> ordered = new ArrayList<>(players);
+        ordered.sort((player1, player2) -> Float.compare(player2.getScore(), player1.getScore()));
+        if (ordered.size() % 2 == 1) {
+            for (int i = ordered.size() - 1; i >= 0; i--) {
+                if (!ordered.get(i).receivedFreePoint()) {
+                    ordered.remove(i);
+                    break;
+                }
+            }
+        }
+        return ordered;
+    }
+
+    static OutcomeEnum randomOutcome(Random random, double drawRate) {
+        if (random.nextDouble() < drawRate) {
+            return OutcomeEnum.DRAW;
+        }
+        return random.nextBoolean() ? OutcomeEnum.WIN : OutcomeEnum.LOSS;
+    }
+}
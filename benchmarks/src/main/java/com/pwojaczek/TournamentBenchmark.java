@@ -0,0 +1,51 @@
+package com.pwojaczek;
+
+import com.pwojaczek.output.NoOpOutputSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of whole tournaments in AUTOMATIC mode. Output goes to no-op sink, so printing does not hide pairing cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TournamentBenchmark {
+
+    @Param({"64", "1024"})
+    private int players;
+
+    @Param({"5", "9", "13"})
+    private int rounds;
+
+    @Param({"false", "true"})
+    private boolean oddField;
+
+    private MatchService matchService;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        matchService = new MatchService(rounds, TournamentType.AUTOMATIC, SyntheticField.players(oddField ? players + 1 : players));
+        matchService.setOutput(new NoOpOutputSink());
+    }
+
+    @Benchmark
+    public void playTournament() {
+        matchService.playTournament();
+    }
+}
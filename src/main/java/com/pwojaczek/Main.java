@@ -1,15 +1,101 @@
 package com.pwojaczek;
 
+import com.pwojaczek.festival.Festival;
+import com.pwojaczek.festival.SectionProgress;
+import com.pwojaczek.random.RandomSource;
+import com.pwojaczek.random.SplittableRandomSource;
+import com.pwojaczek.server.TournamentServer;
+import com.pwojaczek.simulation.BatchSimulation;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class Main {
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("simulate")) {
+            simulate(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("server")) {
+            serve(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("festival")) {
+            playFestival(args);
+            return;
+        }
+        Scanner scanner = new Scanner(System.in);
         MatchService matchService = new MatchService();
-        matchService.initTournament();
+        matchService.setConsole(scanner);
+        if (args.length > 0 && args[0].equals("resume")) {
+            matchService.resumeTournament(args.length > 1 ? args[1] : MatchService.DEFAULT_CONFIG_PATH);
+        } else {
+            matchService.initTournament(args.length > 0 ? args[0] : MatchService.DEFAULT_CONFIG_PATH);
+        }
 
-        Scanner scanner = new Scanner(System.in);
         scanner.next();
 
     }
+
+    /**
+     * Runs tournament server until the process is stopped.
+     * Arguments: server [port] [pairingThreads] [pairingQueueSize] [requestThreads] [requestQueueSize].
+     */
+    private static void serve(String[] args) {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        int pairingThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int pairingQueueSize = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        int requestThreads = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+        int requestQueueSize = args.length > 5 ? Integer.parseInt(args[5]) : 256;
+        TournamentServer server = new TournamentServer(port, pairingThreads, pairingQueueSize, requestThreads, requestQueueSize);
+        System.out.println("Tournament server listening on port " + server.getPort());
+    }
+
+    /**
+     * Plays festival of sections from festival config. Pairing time of every section is printed to standard error.
+     * Arguments: festival [config].
+     */
+    private static void playFestival(String[] args) {
+        try (Festival festival = Festival.load(args.length > 1 ? args[1] : "festival.json")) {
+            festival.setProgressListener(progress -> {
+                if (progress.getState() == SectionProgress.State.PAIRED || progress.getState() == SectionProgress.State.STOPPED) {
+                    System.err.println(progress);
+                }
+            });
+            festival.play();
+        }
+    }
+
+    /**
+     * Simulates tournaments with players, their ratings, rounds, pairing system, outcome model and random source from config file.
+     * Arguments: simulate [tournaments] [seed] [threads] [config], seed given in arguments overrides seed from config file.
+     */
+    private static void simulate(String[] args) {
+        int tournaments = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        MatchService config = new MatchService();
+        config.loadTournament(args.length > 4 ? args[4] : MatchService.DEFAULT_CONFIG_PATH);
+        List<String> playerNames = new ArrayList<>();
+        int[] ratings = new int[config.getPlayers().size()];
+        for (Player player : config.getPlayers()) {
+            ratings[playerNames.size()] = player.getRating();
+            playerNames.add(player.getName());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            RandomSource random = args.length > 2 ? new SplittableRandomSource(Long.parseLong(args[2])) : config.getRandom();
+            BatchSimulation simulation = new BatchSimulation(playerNames, ratings, config.getRounds(), executor);
+            simulation.setOutcomeModel(config.getOutcomeModelType(), config.getDrawRate());
+            simulation.setPairingSystemType(config.getPairingSystemType());
+            simulation.run(tournaments, random, null).print();
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -1,315 +1,857 @@
 package com.pwojaczek;
 
-import org.apache.commons.io.IOUtils;
+import com.pwojaczek.config.ConfigReader;
+import com.pwojaczek.eventlog.EventHandler;
+import com.pwojaczek.eventlog.EventLog;
+import com.pwojaczek.eventlog.EventLogReader;
+import com.pwojaczek.eventlog.FileEventLog;
+import com.pwojaczek.eventlog.NoOpEventLog;
+import com.pwojaczek.export.Crosstable;
+import com.pwojaczek.export.ExportFormat;
+import com.pwojaczek.export.Exporter;
+import com.pwojaczek.pairing.ColorAllocator;
+import com.pwojaczek.pairing.DutchPairingSystem;
+import com.pwojaczek.pairing.MatchingPairingEngine;
+import com.pwojaczek.pairing.PairingEngine;
+import com.pwojaczek.pairing.PairingResult;
+import com.pwojaczek.pairing.PairingSystem;
+import com.pwojaczek.pairing.PairingSystemType;
+import com.pwojaczek.pairing.ParallelGraphPairingEngine;
+import com.pwojaczek.random.RandomSource;
+import com.pwojaczek.random.RandomStrategy;
+import com.pwojaczek.metrics.PairingMetrics;
+import com.pwojaczek.outcome.OutcomeModel;
+import com.pwojaczek.outcome.OutcomeModelType;
+import com.pwojaczek.output.AsyncWriter;
+import com.pwojaczek.output.OutputFormat;
+import com.pwojaczek.output.OutputSink;
+import com.pwojaczek.output.TextOutputSink;
+import com.pwojaczek.preview.PairingPreview;
+import com.pwojaczek.preview.PreviewScenario;
+import com.pwojaczek.preview.SpeculativePairing;
+import com.pwojaczek.results.ResultServer;
+import com.pwojaczek.results.RoundResults;
+import com.pwojaczek.results.SubmissionStatus;
+import com.pwojaczek.snapshot.SnapshotHandler;
+import com.pwojaczek.snapshot.SnapshotReader;
+import com.pwojaczek.snapshot.SnapshotWriter;
+import com.pwojaczek.standings.StandingsIndex;
+import com.pwojaczek.store.CompactTournamentState;
+import com.pwojaczek.tiebreak.Tiebreak;
+import com.pwojaczek.tiebreak.TiebreakTable;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.json.JSONArray;
 import org.json.JSONObject;
-import org.json.JSONTokener;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.IntStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 public class MatchService {
-    private static final int LAST_MATCHES_TO_CHECK = 2;
+    public static final String DEFAULT_CONFIG_PATH = "config.txt";
+    public static final int DEFAULT_PREVIEW_SCENARIOS = 27;
+    public static final double DEFAULT_DRAW_RATE = 0.3;
+    public static final String DEFAULT_NAME = "tournament";
+
+    private PairingEngine pairingEngine;
+    private final ColorAllocator colorAllocator = new ColorAllocator();
+    private PairingSystemType pairingSystemType = PairingSystemType.DUTCH;
+    private PairingSystem pairingSystem;
 
     private int rounds;
     private boolean oddPlayers;
     private TournamentType tournamentType;
     private List<Player> players = new ArrayList<>();
+    private CompactTournamentState compactState;
+    private RandomSource random = RandomStrategy.SPLITTABLE.create(null);
+    private OutcomeModelType outcomeModelType = OutcomeModelType.UNIFORM;
+    private double drawRate = DEFAULT_DRAW_RATE;
+    private OutcomeModel outcomeModel;
+    private Writer consoleOutput = consoleWriter();
+    private OutputSink output = new TextOutputSink(consoleOutput);
+    private Path eventLogPath;
+    private EventLog eventLog = new NoOpEventLog();
+    private int playedRounds;
+    private final List<List<Match>> finishedRounds = new ArrayList<>();
+    private List<Match> pendingMatches;
+    private Path snapshotPath;
+    private String name = DEFAULT_NAME;
+    private Path exportDirectory;
+    private List<ExportFormat> exportFormats = Arrays.asList(ExportFormat.values());
+    private final Exporter exporter = new Exporter();
+    private final TiebreakTable tiebreaks = new TiebreakTable();
+    private StandingsIndex standings;
+    private volatile RoundResults currentResults;
+    private volatile PairingPreview preview;
+    private Executor previewExecutor = ForkJoinPool.commonPool();
+    private int resultServerPort = -1;
+    private ResultServer resultServer;
+    private int resultServerThreads = Runtime.getRuntime().availableProcessors();
+    private Scanner console;
+    private final PairingMetrics metrics = new PairingMetrics();
+    private String metricsFile;
+    private List<Tiebreak> tiebreakOrder = Arrays.asList(Tiebreak.values());
+
+    public MatchService() {
+        this(new MatchingPairingEngine());
+    }
+
+    public MatchService(PairingEngine pairingEngine) {
+        this.pairingEngine = pairingEngine;
+    }
+
+    /**
+     * Creates tournament with already registered players, without reading config file.
+     */
+    public MatchService(int rounds, TournamentType tournamentType, List<Player> players) {
+        this(new MatchingPairingEngine(), rounds, tournamentType, players);
+    }
+
+    public MatchService(PairingEngine pairingEngine, int rounds, TournamentType tournamentType, List<Player> players) {
+        this(pairingEngine);
+        this.rounds = rounds;
+        this.tournamentType = tournamentType;
+        this.players = players;
+        this.oddPlayers = players.size() % 2 == 1;
+    }
 
     public void initTournament() {
+        initTournament(DEFAULT_CONFIG_PATH);
+    }
+
+    public void initTournament(String configPath) {
+        loadTournament(configPath);
+        createEventLog();
+        playAndClose();
+    }
+
+    /**
+     * Method starts loaded tournament, whose rounds are then played one by one by the caller.
+     * Event log is created, if it's configured, result server is started and pairing metrics are registered in JMX
+     * under given name. Tournament is ended with finishTournament.
+     */
+    public void startTournament(String name) {
+        createEventLog();
+        open(name);
+    }
+
+    /**
+     * Method prints final results of tournament started with startTournament and closes it.
+     */
+    public void finishTournament() {
         try {
-            prepareData();
-        } catch (IOException e) {
-            throw new RuntimeException("Error while loading data from JSON", e);
+            printResults();
+        } finally {
+            close();
         }
+    }
 
-        if (players.size() % 2 == 1) {
-            oddPlayers = true;
+    private void createEventLog() {
+        if (eventLogPath != null) {
+            eventLog = FileEventLog.create(eventLogPath, players.size());
         }
-        IntStream.rangeClosed(1, rounds).forEach(pairingNumber -> {
-            List<Match> matches;
-            if (pairingNumber == 1) {
-                matches = createPairsRandom(players);
-            } else {
-                matches = createPairs(players);
-            }
-            if (tournamentType == TournamentType.AUTOMATIC) {
-                createOutcomes(matches);
-            } else {
-                printOutcomes(pairingNumber, matches);
-                enterOutcomes(matches);
+    }
+
+    /**
+     * Method resumes interrupted tournament. Event log from config file is replayed to rebuild scores
+     * and histories of players, or the last snapshot is loaded, if config has no event log. Then tournament
+     * continues - with the last pairing, if its results were not saved, or with the next round.
+     */
+    public void resumeTournament(String configPath) {
+        loadTournament(configPath);
+        if (eventLogPath != null) {
+            EventLogReplay replay = new EventLogReplay();
+            long logLength = new EventLogReader().replay(eventLogPath, players.size(), replay);
+            if (replay.paired) {
+                // Results of the pending round were not committed, so they are entered again.
+                for (Match match : replay.roundMatches) {
+                    if (match.getOutcome() != OutcomeEnum.FREE_POINT) {
+                        match.setOutcome(null);
+                    }
+                }
+                pendingMatches = replay.roundMatches;
             }
-            printOutcomes(pairingNumber, matches);
-            appendPointsForMatches(matches);
-        });
-        printResults(players);
+            eventLog = FileEventLog.append(eventLogPath, logLength);
+        } else if (snapshotPath != null) {
+            loadSnapshot(snapshotPath);
+        } else {
+            throw new RuntimeException("Config file has no eventLog or snapshot to resume the tournament from");
+        }
+        playAndClose();
     }
 
     /**
-     * Method prepares data of the torunament from config file.
-     * Config file contains numbers of rounds in the torunament and player names.
+     * Method writes snapshot of the whole tournament state - players with their scores, free points and histories
+     * and all rounds, including the paired round waiting for results.
+     * State must not change while snapshot is written.
      */
-    private void prepareData() throws IOException {
-        InputStream is =
-                new FileInputStream(new File("config.txt"));
-        String jsonTxt = IOUtils.toString(is, Charset.forName("UTF-8"));
-        JSONObject jsonObject = new JSONObject(new JSONTokener(jsonTxt));
-        rounds = jsonObject.getInt("rounds");
-        tournamentType = TournamentType.valueOf(jsonObject.getString("type"));
-        JSONArray jsonPlayers = jsonObject.getJSONArray("players");
+    public void saveSnapshot(Path path) {
+        SnapshotWriter.write(path, rounds, tournamentType, pairingSystemType, players, finishedRounds, pendingMatches);
+    }
 
-        if (jsonPlayers.length() <= rounds) {
-            throw new RuntimeException("Players count is not enought to play a torunament with " + rounds + " rounds");
+    /**
+     * Method restores tournament from snapshot into this service, which has not played any round yet.
+     * Players, rounds, tournament type and pairing system are replaced by the ones from snapshot, rounds of snapshot
+     * are replayed to rebuild histories and scores. Tiebreaks and standings index are then built once for the whole tournament.
+     * Round without results becomes pending, as in resume from event log.
+     */
+    public void loadSnapshot(Path path) {
+        if (playedRounds > 0 || pendingMatches != null) {
+            throw new RuntimeException("Snapshot can be loaded only before the first round is paired");
         }
-        for (Object player : jsonPlayers) {
-            players.add(new Player(player.toString()));
+        SnapshotReplay replay = new SnapshotReplay();
+        new SnapshotReader().read(path, replay);
+        if (replay.paired) {
+            pendingMatches = replay.roundMatches;
         }
+        replay.verify();
+        tiebreaks.rebuild(players, finishedRounds);
+        standings = null;
     }
 
     /**
-     * Method assigns free point if there is odd number of players.
-     * Player gets free point if there is no lowest score than him or lower scores already received a free point.
+     * Method plays the tournament with result server running, if it's configured, and closes output and event log.
+     * Pairing metrics are registered in JMX while the tournament is played and dumped to metricsFile at the end.
      */
-    private Player assignFreePoint(List<Player> players) {
-        sortPlayersByScoreAscending(players);
-        for (Player player : players) {
-            if (!player.receivedFreePoint()) {
-                player.setFreePoint(true);
-                players.remove(player);
-                return player;
-            }
+    private void playAndClose() {
+        open(name);
+        try {
+            playTournament();
+        } finally {
+            close();
         }
-        throw new RuntimeException("No player to assign free point to.");
     }
 
-    private List<Match> createPairs(List<Player> players) {
-        List<Match> matches = new ArrayList<>();
-        List<Player> tempPlayers = new ArrayList<>(players);
-        Player freePointPlayer = null;
-        if (oddPlayers) {
-            freePointPlayer = assignFreePoint(tempPlayers);
+    private void open(String name) {
+        if (resultServerPort >= 0 && tournamentType == TournamentType.MANUAL) {
+            resultServer = new ResultServer(this::getCurrentResults, resultServerPort, resultServerThreads);
         }
-        sortPlayersByScore(tempPlayers);
-        int matchesCount = Math.floorDiv(players.size(), 2);
-        for (int i = 0; i < matchesCount; i++) {
-            matches.add(createPair(tempPlayers));
+        metrics.register(name);
+    }
+
+    private void close() {
+        try {
+            if (resultServer != null) {
+                resultServer.close();
+                resultServer = null;
+            }
+            output.close();
+            eventLog.close();
+        } finally {
+            metrics.unregister();
+            if (metricsFile != null) {
+                metrics.dump(metricsFile);
+            }
         }
-        if (freePointPlayer != null) {
-            matches.add(new Match(freePointPlayer, OutcomeEnum.FREE_POINT));
+    }
+
+    public void loadTournament() {
+        loadTournament(DEFAULT_CONFIG_PATH);
+    }
+
+    /**
+     * Method loads rounds, tournament type and players from config file at given path.
+     */
+    public void loadTournament(String configPath) {
+        loadTournament(configPath, new ConfigReader());
+    }
+
+    /**
+     * Method loads tournament from config file with given reader and returns all settings of the config,
+     * so callers read their own keys without parsing the file again.
+     */
+    public JSONObject loadTournament(String configPath, ConfigReader configReader) {
+        try {
+            return prepareData(Paths.get(configPath), configReader);
+        } catch (IOException e) {
+            throw new RuntimeException("Error while loading data from JSON", e);
         }
-        return matches;
     }
 
-    private List<Match> createPairsRandom(List<Player> players) {
-        sortPlayersByScore(players);
-        List<Match> matches = new ArrayList<>();
-        List<Player> tempPlayers = new ArrayList<>(players);
-        Player freePointPlayer = null;
-        if (oddPlayers) {
-            freePointPlayer = assignFreePoint(tempPlayers);
+    public int getRounds() {
+        return rounds;
+    }
+
+    public TournamentType getTournamentType() {
+        return tournamentType;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public RandomSource getRandom() {
+        return random;
+    }
+
+    public PairingSystemType getPairingSystemType() {
+        return pairingSystemType;
+    }
+
+    /**
+     * Sets pairing system of the tournament. It has to be set before the first round is paired.
+     */
+    public void setPairingSystemType(PairingSystemType pairingSystemType) {
+        this.pairingSystemType = pairingSystemType;
+        this.pairingSystem = null;
+    }
+
+    public OutcomeModelType getOutcomeModelType() {
+        return outcomeModelType;
+    }
+
+    public double getDrawRate() {
+        return drawRate;
+    }
+
+    /**
+     * Sets model of outcomes drawn in AUTOMATIC tournament. Draw rate is share of draws between equally rated players.
+     */
+    public void setOutcomeModel(OutcomeModelType outcomeModelType, double drawRate) {
+        this.outcomeModelType = outcomeModelType;
+        this.drawRate = drawRate;
+        this.outcomeModel = null;
+    }
+
+    private OutcomeModel getOutcomeModel() {
+        if (outcomeModel == null) {
+            outcomeModel = outcomeModelType.create(drawRate);
         }
-        int matchesCount = Math.floorDiv(players.size(), 2);
-        for (int i = 0; i < matchesCount; i++) {
-            matches.add(createPairRandom(tempPlayers));
+        return outcomeModel;
+    }
+
+    /**
+     * Pairing system of the tournament, created for registered players when it's needed for the first time.
+     */
+    private PairingSystem getPairingSystem() {
+        if (pairingSystem == null) {
+            pairingSystem = pairingSystemType.create(rounds, players.size(), colorAllocator);
         }
-        if (freePointPlayer != null) {
-            matches.add(new Match(freePointPlayer, OutcomeEnum.FREE_POINT));
+        return pairingSystem;
+    }
+
+    /**
+     * Index of registered players by score, kept up to date with every recorded result.
+     */
+    public StandingsIndex getStandingsIndex() {
+        if (standings == null) {
+            standings = new StandingsIndex(players);
         }
-        return matches;
-    }
-
-    private Match createPairRandom(List<Player> players) {
-        Random random = new Random();
-        Player player1 = players.get(0);
-        players.remove(player1);
-        Player player2;
-
-        player2 = players.get(random.nextInt(players.size()));
-        int properSetup = getPlayersColorMatchup(player1, player2);
-        players.remove(player2);
-        Match match = createMatchBasedOnSetup(player1, player2, properSetup);
-        player1.addMatch(match);
-        player2.addMatch(match);
-        return match;
-    }
-
-    private Match createPair(List<Player> players) {
-        Player player1 = players.get(0);
-        players.remove(player1);
-        Player player2;
-
-        for (int i = 0; i < players.size(); i++) {
-            player2 = players.get(i);
-            int properSetup = getPlayersColorMatchup(player1, player2);
-            List<Player> playersToCheck = new ArrayList<>(players);
-            playersToCheck.remove(player2);
-            if (!player1.playedWith(player2) && properSetup != -1 && isPairingPossibleBruteForce(playersToCheck)) {
-                players.remove(player2);
-                Match match = createMatchBasedOnSetup(player1, player2, properSetup);
-                player1.addMatch(match);
-                player2.addMatch(match);
-                return match;
-            }
+        return standings;
+    }
+
+    /**
+     * Current standings - by score, then by tiebreaks in configured order.
+     */
+    public List<Player> getStandings() {
+        return getStandingsIndex().ranking(standingsComparator());
+    }
+
+    /**
+     * Limit players from the top of standings, without sorting players below them.
+     */
+    public List<Player> getStandings(int limit) {
+        return getStandingsIndex().ranking(standingsComparator(), limit);
+    }
+
+    public PairingMetrics getPairingMetrics() {
+        return metrics;
+    }
+
+    public TiebreakTable getTiebreaks() {
+        return tiebreaks;
+    }
+
+    /**
+     * Comparator of final standings - by score, then by tiebreaks in configured order.
+     */
+    public Comparator<Player> standingsComparator() {
+        return tiebreaks.standingsComparator(tiebreakOrder);
+    }
+
+    /**
+     * Results of the round which waits for results of MANUAL tournament, null if there is no such round.
+     */
+    public RoundResults getCurrentResults() {
+        return currentResults;
+    }
+
+    /**
+     * Method submits outcome of a board of the round waiting for results. It can be called from many threads.
+     */
+    public SubmissionStatus submitResult(int board, OutcomeEnum outcome) {
+        RoundResults results = currentResults;
+        return results == null ? SubmissionStatus.ROUND_NOT_OPEN : results.submit(board, outcome);
+    }
+
+    /**
+     * Sets random source used for the first round pairing and for automatic outcomes.
+     */
+    public void setRandom(RandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Sets sink of pairings and results. Simulations of many tournaments use NoOpOutputSink.
+     */
+    public void setOutput(OutputSink output) {
+        this.output = output;
+    }
+
+    /**
+     * Method plays all remaining rounds of the tournament with registered players and prints final results.
+     * Every pairing and saved results of a round are written to event log.
+     */
+    public void playTournament() {
+        while (playedRounds < rounds && playRound()) {
+            // Rounds are played until the last one or until a round can't be paired.
         }
-        throw new RuntimeException("Could not create pair");
-    }
-
-    private boolean isPairingPossibleBruteForce(List<Player> players) {
-        List<Player> tempPlayers = new ArrayList<>(players);
-        int matchesCount = Math.floorDiv(players.size(), 2);
-        return IntStream.range(0, matchesCount).allMatch(a -> {
-            Player player1 = tempPlayers.get(0);
-            tempPlayers.remove(player1);
-            Player player2;
-            for (int i = 0; i < tempPlayers.size(); i++) {
-                player2 = tempPlayers.get(i);
-                int properSetup = getPlayersColorMatchup(player1, player2);
-                List<Player> playersToCheck = new ArrayList<>(tempPlayers);
-                playersToCheck.remove(player2);
-                if (!player1.playedWith(player2) && properSetup != -1 && isPairingPossibleBruteForce(playersToCheck)) {
-                    tempPlayers.remove(player2);
-                    return true;
-                }
+        printResults();
+    }
+
+    /**
+     * Method plays the next round - pairs it, unless it's already paired and pending, gets its outcomes
+     * (drawn in AUTOMATIC tournament, collected in MANUAL one) and finishes it. Returns false, if the round can't be paired.
+     */
+    public boolean playRound() {
+        int pairingNumber = playedRounds + 1;
+        List<Match> matches = pendingMatches;
+        if (matches == null) {
+            PairingResult pairingResult = pairNextRound();
+            if (!pairingResult.isComplete()) {
+                return false;
             }
-            return false;
-        });
+            matches = pairingResult.getMatches();
+        }
+        if (tournamentType == TournamentType.AUTOMATIC) {
+            createOutcomes(matches);
+        } else {
+            printOutcomes(pairingNumber, matches);
+            collectOutcomes(pairingNumber, matches);
+        }
+        finishRound(matches);
+        return true;
     }
 
     /**
-     * Create Match based on color Setup.
-     * Create match with player1 as white, if colorSetup is 1.
-     * Create match with player2 as white, if colorSetup is 2.
-     * If colorSetup is 0, check playerScores -  player with highest score gets white color.
-     * If both have the same amount of points, white goes for player1.
+     * Method pairs the next round with pairing system of the tournament, logs the pairing and writes snapshot, if it's configured.
+     * If preview of the round has scenario which happened in the previous round, its pairing is used without pairing again.
+     * Paired round stays pending until it's finished. Returns incomplete result, if the round can't be paired,
+     * and publishes players who could not be paired.
      */
-    private Match createMatchBasedOnSetup(Player player1, Player player2, int colorSetup) {
-        if (colorSetup == 1) {
-            return new Match(player1, player2);
-        } else if (colorSetup == 2) {
-            return new Match(player2, player1);
+    public PairingResult pairNextRound() {
+        int pairingNumber = playedRounds + 1;
+        long allocatedBefore = PairingMetrics.currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        PairingResult pairingResult = adoptPreview(pairingNumber);
+        if (pairingResult == null) {
+            pairingResult = pairPlayers(pairingNumber, orderedPlayers -> getPairingSystem().pair(pairingNumber, orderedPlayers, pairingEngine, random));
+        }
+        long nanos = System.nanoTime() - start;
+        long allocatedAfter = PairingMetrics.currentThreadAllocatedBytes();
+        metrics.record(pairingResult, nanos, allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+        if (pairingResult.isComplete()) {
+            pendingMatches = pairingResult.getMatches();
+            eventLog.pairing(pairingNumber, pendingMatches);
+            writeSnapshot();
         } else {
-            if (player1.getScore() < player2.getScore()) {
-                return createMatchBasedOnSetup(player1, player2, 2);
-            } else {
-                return createMatchBasedOnSetup(player1, player2, 1);
-            }
+            printPairingNotPossible(pairingNumber, pairingResult);
         }
+        return pairingResult;
+    }
+
+    /**
+     * Method finishes the round with outcomes set to all its matches - publishes and logs outcomes,
+     * appends points of the round and writes snapshot, if it's configured.
+     */
+    public void finishRound(List<Match> matches) {
+        int pairingNumber = playedRounds + 1;
+        printOutcomes(pairingNumber, matches);
+        eventLog.results(pairingNumber, matches);
+        appendPointsForMatches(matches);
+        finishedRounds.add(matches);
+        pendingMatches = null;
+        playedRounds = pairingNumber;
+        writeSnapshot();
+        exportRound(pairingNumber);
+    }
+
+    public int getPlayedRounds() {
+        return playedRounds;
     }
 
-    private void removeFreePointMatches(List<Match> playerMatches) {
-        Optional<Match> freePointMatch = playerMatches.stream().filter(match -> match.getOutcome() == OutcomeEnum.FREE_POINT).findAny();
-        freePointMatch.ifPresent(playerMatches::remove);
+    /**
+     * Matches of finished rounds in order of rounds. Matches of a round are in order of boards, free point is the last one.
+     */
+    public List<List<Match>> getFinishedRounds() {
+        return finishedRounds;
     }
 
     /**
-     * Check if players can get proper colors and get best matching color setup.
-     * Return -1, if there can't be proper color assigned
-     * Return 1, if player1 should play white
-     * Return 2, if player2 should play black
-     * Return 0, if color doesn't matter
+     * Method pairs the next round speculatively for every outcome of boards of the pending round which have no result yet,
+     * with results taken from the round waiting for results. See previewNextRound(RoundResults, int).
      */
-    private int getPlayersColorMatchup(Player player1, Player player2) {
-        boolean player1MustPlayBlack = false;
-        boolean player2MustPlayBlack = false;
-        boolean player1MustPlayWhite = false;
-        boolean player2MustPlayWhite = false;
+    public PairingPreview previewNextRound(int maxScenarios) {
+        return previewNextRound(currentResults, maxScenarios);
+    }
 
-        List<Match> matchesPlayer1Copy = new ArrayList<>(player1.getMatchHistory());
-        List<Match> matchesPlayer2Copy = new ArrayList<>(player2.getMatchHistory());
-        removeFreePointMatches(matchesPlayer1Copy);
-        removeFreePointMatches(matchesPlayer2Copy);
+    /**
+     * Method pairs the next round speculatively for every outcome of boards of the pending round which have no result yet.
+     * Known outcomes are taken from results, if they are results of the pending round, otherwise from pending matches.
+     * Scenarios are paired in parallel on preview executor and the preview is kept, so when the round is finished,
+     * pairNextRound uses pairing of scenario which happened. Players are only read, but the round can't be finished until it returns.
+     * Throws IllegalStateException, if there is no pending round to preview or it has more than maxScenarios scenarios.
+     */
+    public PairingPreview previewNextRound(RoundResults results, int maxScenarios) {
+        List<Match> matches = pendingMatches;
+        if (matches == null || playedRounds + 1 >= rounds) {
+            throw new IllegalStateException("There is no pending round followed by another round to preview");
+        }
+        OutcomeEnum[] outcomes = new OutcomeEnum[matches.size()];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = results != null && results.getMatches() == matches ? results.getOutcome(i + 1) : matches.get(i).getOutcome();
+        }
+        int pairingNumber = playedRounds + 2;
+        PairingSystem system = getPairingSystem();
+        // Pairing systems draw random numbers only in the first round, which is never previewed, so scenarios don't share them.
+        SpeculativePairing speculativePairing = new SpeculativePairing(players, oddPlayers, system.scheduledFreePoint(pairingNumber),
+                system.freePointToLowestSeed(),
+                orderedPlayers -> system.pair(pairingNumber, orderedPlayers, pairingEngine, random), previewExecutor);
+        PairingPreview newPreview = speculativePairing.preview(pairingNumber, matches, outcomes, maxScenarios);
+        preview = newPreview;
+        return newPreview;
+    }
 
-        int matchesPlayedSizePlayer1 = matchesPlayer1Copy.size();
-        int matchesPlayedSizePlayer2 = matchesPlayer2Copy.size();
-        long player1WhiteCount;
-        long player2WhiteCount;
+    /**
+     * The last preview of the next round, null if there is none.
+     */
+    public PairingPreview getPreview() {
+        return preview;
+    }
 
-        if (matchesPlayedSizePlayer1 > 2) {
-            player1WhiteCount = matchesPlayer1Copy.subList(matchesPlayedSizePlayer1 - LAST_MATCHES_TO_CHECK, matchesPlayedSizePlayer1).stream().filter(match -> match.getPlayer1().equals(player1)).count();
-        } else {
-            player1WhiteCount = matchesPlayer1Copy.stream().filter(match -> match.getPlayer1().equals(player1)).count();
+    /**
+     * Sets executor on which scenarios of preview are paired. Common fork-join pool is used by default.
+     */
+    public void setPreviewExecutor(Executor previewExecutor) {
+        this.previewExecutor = previewExecutor;
+    }
+
+    /**
+     * Method exports crosstable of finished rounds in given format to file at given path.
+     */
+    public void export(ExportFormat format, Path path) {
+        exporter.export(createCrosstable(), format, path);
+    }
+
+    /**
+     * Crosstable of finished rounds with players in order of current standings.
+     */
+    public Crosstable createCrosstable() {
+        return new Crosstable(name, getStandings(), finishedRounds);
+    }
+
+    /**
+     * Method exports crosstable after the round to export directory in all export formats, if it's configured.
+     * Files are named after the round, e.g. round-3.trf, so every round stays published.
+     */
+    private void exportRound(int pairingNumber) {
+        if (exportDirectory == null) {
+            return;
         }
-        if (matchesPlayedSizePlayer2 > 2) {
-            player2WhiteCount = matchesPlayer2Copy.subList(matchesPlayedSizePlayer2 - LAST_MATCHES_TO_CHECK, matchesPlayedSizePlayer2).stream().filter(match -> match.getPlayer1().equals(player2)).count();
-        } else {
-            player2WhiteCount = matchesPlayer2Copy.stream().filter(match -> match.getPlayer1().equals(player2)).count();
+        Crosstable crosstable = createCrosstable();
+        for (ExportFormat format : exportFormats) {
+            exporter.export(crosstable, format, exportDirectory.resolve("round-" + pairingNumber + "." + format.getExtension()));
+        }
+    }
+
+    private void writeSnapshot() {
+        if (snapshotPath != null) {
+            saveSnapshot(snapshotPath);
         }
+    }
+
+    /**
+     * Method registers player with the next free id. Players can be registered until the first round is paired.
+     */
+    public Player registerPlayer(String name) {
+        Player player = compactState != null ? compactState.player(compactState.addPlayer(name)) : new Player(players.size(), name);
+        players.add(player);
+        oddPlayers = players.size() % 2 == 1;
+        standings = null;
+        pairingSystem = null;
+        return player;
+    }
 
-        // Players can't play the same color three times in a row.
-        if (player1WhiteCount == 2) {
-            player1MustPlayBlack = true;
-        } else if (player1WhiteCount == 0 && matchesPlayedSizePlayer1 > 1) {
-            player1MustPlayWhite = true;
+    /**
+     * Method prepares data of the torunament from config file.
+     * Config file contains numbers of rounds in the torunament and player names.
+     * Optional parallelPairing flag turns on building of compatibility graph in parallel, the matching of the round stays sequential.
+     * Optional pairing system (DUTCH, SEEDED or BAKU) decides how the first round is paired and if top seeds are accelerated,
+     * ROUND_ROBIN, DOUBLE_ROUND_ROBIN and SCHEVENINGEN pair rounds by schedule of seeds.
+     * Optional seed and random strategy (SPLITTABLE or THREAD_LOCAL) choose source of randomness of the tournament.
+     * Optional output format (TEXT, CSV, JSON_LINES or NONE), outputFile and asyncOutput flag choose where pairings and results go.
+     * Players are created by ConfigReader while the file is streamed, player is given as name or object with name and optional rating.
+     * Optional outcomeModel (UNIFORM or ELO) and drawRate choose how outcomes of AUTOMATIC tournament are drawn,
+     * ELO model is used by default if any player has rating.
+     * Optional eventLog is path of a file where the tournament is logged, so it can be resumed.
+     * Optional resultServerPort starts HTTP endpoint for result entry of MANUAL tournament instead of console,
+     * served by resultServerThreads threads.
+     * Optional metricsFile is path of a file where pairing metrics are dumped after the tournament.
+     * Optional snapshot is path of a file where snapshot of the tournament is written after every pairing and every round.
+     * Optional tiebreaks array sets order of tiebreaks in final standings, by default all tiebreaks are used.
+     * Optional exportDirectory is path of a directory where crosstable is exported after every round
+     * in exportFormats (TRF, CSV and HTML by default), under tournament name given by optional name.
+     * Optional compactState flag keeps players and matches in CompactTournamentState, for fields too big for Player objects.
+     * It's rejected for more than CompactTournamentState.MAX_GAMES rounds and together with snapshot.
+     */
+    private JSONObject prepareData(Path configPath, ConfigReader configReader) throws IOException {
+        JSONObject jsonObject = configReader.read(configPath, players);
+        rounds = jsonObject.getInt("rounds");
+        tournamentType = TournamentType.valueOf(jsonObject.getString("type"));
+        if (jsonObject.optBoolean("parallelPairing")) {
+            pairingEngine = new ParallelGraphPairingEngine();
         }
-        if (player2WhiteCount == 2) {
-            player2MustPlayBlack = true;
-        } else if (player2WhiteCount == 0 && matchesPlayedSizePlayer1 > 1) {
-            player2MustPlayWhite = true;
+        setPairingSystemType(PairingSystemType.valueOf(jsonObject.optString("pairing", PairingSystemType.DUTCH.name())));
+        RandomStrategy randomStrategy = RandomStrategy.valueOf(jsonObject.optString("random", RandomStrategy.SPLITTABLE.name()));
+        random = randomStrategy.create(jsonObject.has("seed") ? jsonObject.getLong("seed") : null);
+        boolean rated = players.stream().anyMatch(Player::hasRating);
+        setOutcomeModel(OutcomeModelType.valueOf(jsonObject.optString("outcomeModel", (rated ? OutcomeModelType.ELO : OutcomeModelType.UNIFORM).name())),
+                jsonObject.optDouble("drawRate", DEFAULT_DRAW_RATE));
+        if (jsonObject.has("output") || jsonObject.has("outputFile") || jsonObject.has("asyncOutput")) {
+            OutputFormat outputFormat = OutputFormat.valueOf(jsonObject.optString("output", OutputFormat.TEXT.name()));
+            Writer writer = jsonObject.has("outputFile")
+                    ? Files.newBufferedWriter(Paths.get(jsonObject.getString("outputFile")), StandardCharsets.UTF_8)
+                    : consoleOutput;
+            if (jsonObject.optBoolean("asyncOutput")) {
+                writer = new AsyncWriter(writer);
+            }
+            if (!jsonObject.has("outputFile")) {
+                // Prompts go through the same writer as output, so they are never printed before the pairing.
+                consoleOutput = writer;
+            }
+            output = outputFormat.create(writer);
         }
 
-        if (player2MustPlayBlack && player1MustPlayBlack || player2MustPlayWhite && player1MustPlayWhite) {
-            return -1;
+        if (jsonObject.has("tiebreaks")) {
+            JSONArray jsonTiebreaks = jsonObject.getJSONArray("tiebreaks");
+            tiebreakOrder = new ArrayList<>();
+            for (Object tiebreak : jsonTiebreaks) {
+                tiebreakOrder.add(Tiebreak.valueOf(tiebreak.toString()));
+            }
         }
-        if (player1MustPlayBlack || player2MustPlayWhite) {
-            return 2;
+        metricsFile = jsonObject.optString("metricsFile", null);
+        resultServerPort = jsonObject.optInt("resultServerPort", resultServerPort);
+        resultServerThreads = jsonObject.optInt("resultServerThreads", resultServerThreads);
+        if (jsonObject.has("eventLog")) {
+            eventLogPath = Paths.get(jsonObject.getString("eventLog"));
         }
-        if (player1MustPlayWhite || player2MustPlayBlack) {
-            return 1;
+        if (jsonObject.has("snapshot")) {
+            snapshotPath = Paths.get(jsonObject.getString("snapshot"));
+        }
+        name = jsonObject.optString("name", DEFAULT_NAME);
+        if (jsonObject.has("exportDirectory")) {
+            exportDirectory = Files.createDirectories(Paths.get(jsonObject.getString("exportDirectory")));
+        }
+        if (jsonObject.has("exportFormats")) {
+            exportFormats = new ArrayList<>();
+            for (Object format : jsonObject.getJSONArray("exportFormats")) {
+                exportFormats.add(ExportFormat.valueOf(format.toString()));
+            }
         }
 
-        // if they didn't play 2 colors in a row, check which color was played more times.
-        player1WhiteCount = matchesPlayer1Copy.stream().filter(match -> match.getPlayer1().equals(player1)).count();
-        player2WhiteCount = matchesPlayer2Copy.stream().filter(match -> match.getPlayer1().equals(player2)).count();
+        if (rounds > pairingSystemType.maxRounds(players.size())) {
+            throw new RuntimeException("Players count is not enought to play a torunament with " + rounds + " rounds");
+        }
+        if (jsonObject.optBoolean("compactState")) {
+            if (rounds > CompactTournamentState.MAX_GAMES) {
+                throw new RuntimeException("Compact state can't keep more than " + CompactTournamentState.MAX_GAMES + " rounds, there are " + rounds);
+            }
+            if (snapshotPath != null) {
+                throw new RuntimeException("Compact state can't be used together with snapshot");
+            }
+            useCompactState();
+        }
+        oddPlayers = players.size() % 2 == 1;
+        return jsonObject;
+    }
 
-        boolean player1ShouldPlayBlack = false;
-        boolean player2ShouldPlayBlack = false;
-        boolean player1ShouldPlayWhite = false;
-        boolean player2ShouldPlayWhite = false;
+    /**
+     * Method assigns free point if there is odd number of players.
+     * Player gets free point if pairing system schedules it to him or, in Swiss systems,
+     * if there is no lowest score than him or lower scores already received a free point.
+     * Among equal scores seeded systems choose the lowest seed, other systems the highest one.
+     * Player is removed from players ordered for pairing.
+     */
+    private Player assignFreePoint(int pairingNumber, List<Player> orderedPlayers) {
+        Player player = freePointPlayer(pairingNumber);
+        if (player == null) {
+            throw new RuntimeException("No player to assign free point to.");
+        }
+        player.setFreePoint(true);
+        orderedPlayers.remove(player);
+        return player;
+    }
 
-        if (player1WhiteCount * 2 > matchesPlayedSizePlayer1) {
-            player1ShouldPlayBlack = true;
-        } else if (player1WhiteCount * 2 < matchesPlayedSizePlayer1) {
-            player1ShouldPlayWhite = true;
+    /**
+     * Player who receives free point in the round by schedule of pairing system, otherwise the lowest placed player without free point.
+     */
+    private Player freePointPlayer(int pairingNumber) {
+        PairingSystem system = getPairingSystem();
+        int scheduledPlayer = system.scheduledFreePoint(pairingNumber);
+        return scheduledPlayer < 0 ? getStandingsIndex().lowestWithoutFreePoint(system.freePointToLowestSeed()) : players.get(scheduledPlayer);
+    }
+
+    /**
+     * Method takes pairing of the round from preview, if it has complete pairing of scenario which happened in the previous round.
+     * Free point goes to the same player as in the scenario, because standings are the same as the scenario's ones.
+     * Returns null, if the round has to be paired.
+     */
+    private PairingResult adoptPreview(int pairingNumber) {
+        PairingPreview roundPreview = preview;
+        preview = null;
+        if (roundPreview == null || roundPreview.getRound() != pairingNumber || finishedRounds.isEmpty()) {
+            return null;
         }
-        if (player2WhiteCount * 2 > matchesPlayedSizePlayer1) {
-            player2ShouldPlayBlack = true;
-        } else if (player2WhiteCount * 2 < matchesPlayedSizePlayer1) {
-            player2ShouldPlayWhite = true;
+        PreviewScenario scenario = roundPreview.scenarioFor(finishedRounds.get(finishedRounds.size() - 1));
+        if (scenario == null || !scenario.getPairing().isComplete()) {
+            return null;
         }
-
-        if (player1ShouldPlayBlack && player2ShouldPlayWhite) {
-            return 2;
-        } else if (player1ShouldPlayWhite && player2ShouldPlayBlack) {
-            return 1;
-        } else if (player1ShouldPlayBlack || player2ShouldPlayWhite) {
-            return 2;
-        } else if (player1ShouldPlayWhite || player2ShouldPlayBlack) {
-            return 1;
-        } else {
-            return 0;
+        Player freePointPlayer = null;
+        if (oddPlayers) {
+            freePointPlayer = freePointPlayer(pairingNumber);
+            freePointPlayer.setFreePoint(true);
         }
+        return addToHistories(scenario.getPairing(), freePointPlayer);
     }
 
     /**
-     * Method randomly creates outcomes for matches 1-3.
-     * 1 - player 1 wins
-     * 2 - player 2 wins
-     * 3 - draw
+     * Method pairs registered players with pairing engine.
      */
-    private void createOutcomes(List<Match> matches) {
-        Random random = new Random();
-        for (Match match : matches) {
-            if (match.getOutcome() != OutcomeEnum.FREE_POINT) {
-                int outcome = random.nextInt(3) + 1;
-                setOutcome(match, outcome);
+    PairingResult createPairs() {
+        return pairPlayers(playedRounds + 1, pairingEngine::pair);
+    }
+
+    /**
+     * Method pairs registered players randomly, as the first round of DUTCH pairing system.
+     */
+    List<Match> createPairsRandom() {
+        return pairPlayers(playedRounds + 1, orderedPlayers -> new PairingResult(new DutchPairingSystem(colorAllocator).pairRandomly(orderedPlayers, random))).getMatches();
+    }
+
+    /**
+     * Method pairs registered players with given pairing. Players are taken in score groups from standings index,
+     * player receiving free point is removed before pairing and created matches are added to histories of players.
+     * If there is no pairing of the whole round, free point assignment is reverted and incomplete result is returned.
+     */
+    private PairingResult pairPlayers(int pairingNumber, Function<List<Player>, PairingResult> pairing) {
+        List<Player> tempPlayers = getStandingsIndex().ordered();
+        Player freePointPlayer = null;
+        if (oddPlayers) {
+            freePointPlayer = assignFreePoint(pairingNumber, tempPlayers);
+        }
+        PairingResult pairingResult = pairing.apply(tempPlayers);
+        if (!pairingResult.isComplete()) {
+            if (freePointPlayer != null) {
+                freePointPlayer.setFreePoint(false);
             }
+            return pairingResult;
+        }
+        return addToHistories(pairingResult, freePointPlayer);
+    }
+
+    /**
+     * Method moves registered players to CompactTournamentState, players are replaced by their views.
+     * It has to be called before the first round is paired. Throws IllegalArgumentException for more than
+     * CompactTournamentState.MAX_GAMES rounds.
+     */
+    public void useCompactState() {
+        if (playedRounds > 0 || pendingMatches != null) {
+            throw new IllegalStateException("Compact state has to be used before the first round is paired");
+        }
+        CompactTournamentState state = new CompactTournamentState(players.size(), rounds);
+        List<Player> views = new ArrayList<>(players.size());
+        for (Player player : players) {
+            Player view = state.player(state.addPlayer(player.getName()));
+            view.setRating(player.getRating());
+            views.add(view);
+        }
+        players = views;
+        compactState = state;
+        standings = null;
+        pairingSystem = null;
+    }
+
+    /**
+     * Method adds matches of complete pairing to histories of players and returns them with free point match as the last one.
+     */
+    private PairingResult addToHistories(PairingResult pairingResult, Player freePointPlayer) {
+        List<Match> matches = new ArrayList<>(pairingResult.getMatches());
+        for (int i = 0; i < matches.size(); i++) {
+            matches.set(i, addToHistory(matches.get(i)));
+        }
+        if (freePointPlayer != null) {
+            matches.add(new Match(freePointPlayer, OutcomeEnum.FREE_POINT));
         }
+        return new PairingResult(matches, Collections.emptyList(), pairingResult.getStatistics());
+    }
+
+    /**
+     * Method adds match to histories of both players. In compact state returns view of the match,
+     * so its outcome is set straight to the state, otherwise the match itself.
+     */
+    private Match addToHistory(Match match) {
+        match.getPlayer1().addMatch(match);
+        match.getPlayer2().addMatch(match);
+        return compactState != null ? compactState.match(match) : match;
+    }
 
+    /**
+     * Method draws outcomes of matches of the round with outcome model of the tournament.
+     */
+    void createOutcomes(List<Match> matches) {
+        getOutcomeModel().outcomes(matches, random);
+    }
+
+    /**
+     * Method collects outcomes of games of the pending round which are not its matches, like boards of team matches.
+     * Games are published as pairing of the round and their outcomes are collected as outcomes of MANUAL round.
+     */
+    public void collectOutcomes(List<Match> games) {
+        int pairingNumber = playedRounds + 1;
+        printOutcomes(pairingNumber, games);
+        collectOutcomes(pairingNumber, games);
+    }
+
+    /**
+     * Method opens the round for results and waits until every board has its result.
+     * Results are submitted through submitResult, by result server if it's running, otherwise from console.
+     * Output is flushed first, so published pairing of the round is out before anyone is asked for results.
+     */
+    private void collectOutcomes(int pairingNumber, List<Match> matches) {
+        output.flush();
+        RoundResults results = new RoundResults(pairingNumber, matches);
+        currentResults = results;
+        try {
+            if (resultServerPort < 0) {
+                enterOutcomes(results);
+            }
+            results.awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Waiting for results was interrupted", e);
+        } finally {
+            currentResults = null;
+        }
     }
 
     /**
@@ -318,122 +860,267 @@ public class MatchService {
      * 1 to set player 1 as winning
      * 2 to set player 2 as winning
      * 3 to set draw
+     * Outcomes are entered again until user saves them, then they are submitted.
+     * Prompts are written to console writer of output sink, if it writes to console, so they come after the pairing.
      */
-    private void enterOutcomes(List<Match> matches) {
-        List<Match> matchesCopy = new ArrayList<>(matches);
-        for (Match match : matchesCopy) {
-            if (match.getOutcome() != OutcomeEnum.FREE_POINT) {
-                printMatchup(match.getPlayer1(), match.getPlayer2());
-                int outcome = getOutcomeFromUser();
-                setOutcome(match, outcome);
+    private void enterOutcomes(RoundResults results) {
+        OutcomeEnum[] outcomes = new OutcomeEnum[results.getBoards() + 1];
+        String response = "n";
+        while (!response.equalsIgnoreCase("y")) {
+            for (int board = 1; board <= results.getBoards(); board++) {
+                Match match = results.getMatch(board);
+                if (match.getOutcome() != OutcomeEnum.FREE_POINT) {
+                    printMatchup(match.getPlayer1(), match.getPlayer2());
+                    outcomes[board] = toOutcome(getOutcomeFromUser());
+                }
+            }
+            prompt("Save scores? y/n\n");
+            response = "";
+            while (!response.equalsIgnoreCase("y") && !response.equalsIgnoreCase("n")) {
+                response = console().next();
             }
         }
-        System.out.println("Save scores? y/n");
-        Scanner scanner = new Scanner(System.in);
-        String response = "";
-        while (!response.equalsIgnoreCase("y") && !response.equalsIgnoreCase("n")) {
-            response = scanner.next();
-        }
-        if (response.equalsIgnoreCase("y")) {
-            IntStream.range(0, matchesCopy.size()).forEach(i -> {
-                matches.get(i).setOutcome(matchesCopy.get(i).getOutcome());
-            });
-        } else {
-            enterOutcomes(matches);
+        for (int board = 1; board <= results.getBoards(); board++) {
+            if (outcomes[board] != null) {
+                results.submit(board, outcomes[board]);
+            }
         }
     }
 
     private int getOutcomeFromUser() {
-        Scanner reader = new Scanner(System.in);
         int outcome = -1;
         while (outcome != 1 && outcome != 2 && outcome != 3) {
-            outcome = reader.nextInt();
+            outcome = console().nextInt();
         }
         return outcome;
     }
 
-    private void appendPointsForMatches(List<Match> matches) {
+    private Scanner console() {
+        if (console == null) {
+            console = new Scanner(System.in);
+        }
+        return console;
+    }
+
+    /**
+     * Sets reader of results entered on console. Scanner buffers input, so everything reading standard input
+     * in one process has to share one scanner. By default the scanner is created on the first use.
+     */
+    public void setConsole(Scanner console) {
+        this.console = console;
+    }
+
+    /**
+     * Method appends points for matches of a round and updates tiebreaks of all players.
+     */
+    void appendPointsForMatches(List<Match> matches) {
         for (Match match : matches) {
             appendPoints(match);
         }
+        tiebreaks.finishRound(players);
     }
 
-    private void setOutcome(Match match, int number) {
+    private OutcomeEnum toOutcome(int number) {
         if (number == 3) {
-            match.setOutcome(OutcomeEnum.DRAW);
+            return OutcomeEnum.DRAW;
         } else if (number == 1) {
-            match.setOutcome(OutcomeEnum.WIN);
+            return OutcomeEnum.WIN;
         } else if (number == 2) {
-            match.setOutcome(OutcomeEnum.LOSS);
+            return OutcomeEnum.LOSS;
         }
+        return null;
     }
 
     private void appendPoints(Match match) {
         Player player1 = match.getPlayer1();
         Player player2 = match.getPlayer2();
+        addScore(match);
+        tiebreaks.recordResult(match);
+        getStandingsIndex().update(player1);
+        if (player2 != null) {
+            getStandingsIndex().update(player2);
+        }
+    }
+
+    private void addScore(Match match) {
         OutcomeEnum outcomeEnum = match.getOutcome();
         if (outcomeEnum == OutcomeEnum.FREE_POINT) {
-            player1.win();
+            match.getPlayer1().win();
         } else if (outcomeEnum == OutcomeEnum.DRAW) {
-            player1.draw();
-            player2.draw();
+            match.getPlayer1().draw();
+            match.getPlayer2().draw();
         } else if (outcomeEnum == OutcomeEnum.WIN) {
-            player1.win();
+            match.getPlayer1().win();
         } else if (outcomeEnum == OutcomeEnum.LOSS) {
-            player2.win();
+            match.getPlayer2().win();
         }
     }
 
+    private void printPairingNotPossible(int pairingNumber, PairingResult pairingResult) {
+        output.pairingNotPossible(pairingNumber, pairingResult.getUnpairedPlayers());
+    }
+
     /**
-     * Method prints fancy outcome of a pairing round in console.
+     * Method publishes outcome of a pairing round to output sink.
      */
     private void printOutcomes(int pairingNumber, List<Match> matches) {
-        System.out.println("############################ PAIRING " + pairingNumber + " #############################");
-        for (Match match : matches) {
-            if (match.getOutcome() == OutcomeEnum.FREE_POINT) {
-                System.out.format("Free point: " + match.getPlayer1().getName() + "(" + match.getPlayer1().getScore() + ")\n");
-            } else {
-                Player player1 = match.getPlayer1();
-                Player player2 = match.getPlayer2();
-                OutcomeEnum outcomeEnum = match.getOutcome();
-                if (outcomeEnum != null) {
-                    printMatchup(player1, player2, outcomeEnum.getOutcome());
-                } else {
-                    printMatchup(player1, player2);
-                }
-            }
-        }
-        System.out.println("####################################################################\n");
+        output.pairing(pairingNumber, matches);
     }
 
     private void printMatchup(Player player1, Player player2) {
-        printMatchup(player1, player2, " - ");
+        prompt(String.format("%-28s%8s%30s", player1.getName() + "(" + player1.getScore() + ")", " - ", player2.getName() + "(" + player2.getScore() + ")\n"));
     }
 
-    private void printMatchup(Player player1, Player player2, String outcome) {
-        System.out.format("%-28s%8s%30s", player1.getName() + "(" + player1.getScore() + ")", outcome, player2.getName() + "(" + player2.getScore() + ")\n");
+    private void prompt(String text) {
+        try {
+            consoleOutput.write(text);
+            consoleOutput.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing to console", e);
+        }
     }
 
     /**
-     * Method sorts players by Score from biggest to lowest score.
+     * Method publishes final standings of a tournament to output sink.
      */
-    private void sortPlayersByScore(List<Player> players) {
-        players.sort(Comparator.comparing(Player::getScore).reversed());
+    private void printResults() {
+        output.results(getStandings());
+        output.flush();
     }
 
-    private void sortPlayersByScoreAscending(List<Player> players) {
-        players.sort(Comparator.comparing(Player::getScore));
+    /**
+     * Handler rebuilding tournament state from replayed event log. Matches of every round are collected
+     * until its pairing is finished, then checked to cover every player once and added to histories of players.
+     * Round is scored when it's finished. Matches of pairing which was never finished stay out of histories.
+     */
+    private class EventLogReplay implements EventHandler {
+        Player[] playersById = new Player[players.size()];
+        List<Match> roundMatches = new ArrayList<>();
+        boolean paired;
+
+        EventLogReplay() {
+            for (Player player : players) {
+                playersById[player.getId()] = player;
+            }
+        }
+
+        @Override
+        public void pairing(int round, int whitePlayer, int blackPlayer) {
+            roundMatches.add(new Match(playersById[whitePlayer], playersById[blackPlayer]));
+        }
+
+        @Override
+        public void freePoint(int round, int player) {
+            roundMatches.add(new Match(playersById[player], OutcomeEnum.FREE_POINT));
+        }
+
+        @Override
+        public void pairingFinished(int round, int matchesCount) {
+            boolean[] pairedPlayers = new boolean[playersById.length];
+            int pairedCount = 0;
+            boolean pairedTwice = false;
+            for (Match match : roundMatches) {
+                for (Player player : Arrays.asList(match.getPlayer1(), match.getPlayer2())) {
+                    if (player == null) {
+                        continue;
+                    }
+                    pairedTwice |= pairedPlayers[player.getId()];
+                    pairedPlayers[player.getId()] = true;
+                    pairedCount++;
+                }
+            }
+            if (roundMatches.size() != matchesCount || pairedTwice || pairedCount != playersById.length) {
+                throw new RuntimeException("Pairing of round " + round + " doesn't pair every player exactly once");
+            }
+            for (int i = 0; i < roundMatches.size(); i++) {
+                Match match = roundMatches.get(i);
+                if (match.getOutcome() == OutcomeEnum.FREE_POINT) {
+                    match.getPlayer1().setFreePoint(true);
+                } else {
+                    roundMatches.set(i, addToHistory(match));
+                }
+            }
+            this.paired = true;
+        }
+
+        @Override
+        public void result(int round, int board, OutcomeEnum outcome) {
+            if (!paired || board < 0 || board >= roundMatches.size()) {
+                throw new RuntimeException("Result of board " + (board + 1) + " of round " + round + " has no pairing");
+            }
+            roundMatches.get(board).setOutcome(outcome);
+        }
+
+        @Override
+        public void roundFinished(int round) {
+            if (!paired) {
+                throw new RuntimeException("Round " + round + " is finished without pairing");
+            }
+            appendPointsForMatches(roundMatches);
+            finishedRounds.add(roundMatches);
+            playedRounds = round;
+            roundMatches = new ArrayList<>();
+            paired = false;
+        }
     }
 
     /**
-     * Method prints final results of a tournament.
+     * Handler restoring tournament from snapshot. Players are created with ids from snapshot, rounds are replayed
+     * as events of event log, but finished rounds only add scores - tiebreaks are rebuilt after the last round.
+     * Scores and free points stored in snapshot are compared with the replayed ones at the end.
      */
-    private void printResults(List<Player> players) {
-        sortPlayersByScore(players);
-        System.out.println("#################### RESULTS ####################");
-        for (Player player : players) {
-            System.out.format("%-32s\t\t%.1f\n", player.getName(), player.getScore());
+    private class SnapshotReplay extends EventLogReplay implements SnapshotHandler {
+        private int[] halfPoints;
+        private boolean[] freePoints;
+
+        @Override
+        public void tournament(int rounds, TournamentType tournamentType, PairingSystemType pairingSystemType, int playersCount) {
+            MatchService.this.rounds = rounds;
+            MatchService.this.tournamentType = tournamentType;
+            setPairingSystemType(pairingSystemType);
+            players.clear();
+            oddPlayers = playersCount % 2 == 1;
+            standings = null;
+            playersById = new Player[playersCount];
+            halfPoints = new int[playersCount];
+            freePoints = new boolean[playersCount];
+        }
+
+        @Override
+        public void player(int id, String name, int rating, float score, boolean freePoint) {
+            Player player = new Player(id, name);
+            player.setRating(rating);
+            players.add(player);
+            playersById[id] = player;
+            halfPoints[id] = Math.round(score * 2);
+            freePoints[id] = freePoint;
+        }
+
+        @Override
+        public void roundFinished(int round) {
+            for (Match match : roundMatches) {
+                addScore(match);
+            }
+            finishedRounds.add(roundMatches);
+            playedRounds = round;
+            roundMatches = new ArrayList<>();
+            paired = false;
+        }
+
+        void verify() {
+            for (Player player : players) {
+                int id = player.getId();
+                if (Math.round(player.getScore() * 2) != halfPoints[id] || player.receivedFreePoint() != freePoints[id]) {
+                    throw new RuntimeException("Snapshot is inconsistent - replayed rounds don't give stored state of player " + player.getName());
+                }
+            }
         }
-        System.out.println("#################################################");
+    }
+
+    /**
+     * Writer to standard output, which doesn't close standard output when sink is closed.
+     */
+    private static Writer consoleWriter() {
+        return new OutputStreamWriter(new CloseShieldOutputStream(System.out), Charset.defaultCharset());
     }
 }
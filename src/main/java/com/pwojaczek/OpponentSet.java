@@ -0,0 +1,68 @@
+package com.pwojaczek;
+
+import java.util.Arrays;
+
+/**
+ * Set of opponent ids of a single player.
+ * Ids are kept in open addressing table of primitive ints, so lookups are constant time and don't allocate.
+ */
+class OpponentSet {
+    private static final int EMPTY = 0;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] table = new int[INITIAL_CAPACITY];
+    private int size;
+
+    boolean contains(int id) {
+        int mask = table.length - 1;
+        int key = id + 1;
+        for (int index = hash(key) & mask; table[index] != EMPTY; index = (index + 1) & mask) {
+            if (table[index] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void add(int id) {
+        if ((size + 1) * 2 > table.length) {
+            resize();
+        }
+        if (insert(table, id + 1)) {
+            size++;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(table, EMPTY);
+        size = 0;
+    }
+
+    private void resize() {
+        int[] newTable = new int[table.length * 2];
+        for (int key : table) {
+            if (key != EMPTY) {
+                insert(newTable, key);
+            }
+        }
+        table = newTable;
+    }
+
+    private static boolean insert(int[] table, int key) {
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = key;
+        return true;
+    }
+
+    private static int hash(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
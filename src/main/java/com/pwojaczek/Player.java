@@ -5,17 +5,46 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 public class Player {
+    public static final int NO_RATING = 0;
+    private static final int LAST_COLORS_MASK = 0b11;
 
+    private final int id;
     private String name;
     private boolean freePoint;
+    private int rating = NO_RATING;
     private float score;
     private List<Match> matchHistory;
 
-    public Player(String name) {
+    // Running state of played games, updated with every added match.
+    private int gamesPlayed;
+    private int whiteCount;
+    private int lastColors;
+    private final OpponentSet opponents;
+
+    /**
+     * Creates player with id unique in the tournament.
+     */
+    public Player(int id, String name) {
+        this.id = id;
         this.name = name;
         this.freePoint = false;
         this.score = 0;
         this.matchHistory = new ArrayList<>();
+        this.opponents = new OpponentSet();
+    }
+
+    /**
+     * Creates view of player whose games are kept elsewhere - history and opponents are not allocated,
+     * so the view has to override every method reading or changing games.
+     */
+    protected Player(int id) {
+        this.id = id;
+        this.matchHistory = null;
+        this.opponents = null;
+    }
+
+    public int getId() {
+        return id;
     }
 
     public String getName() {
@@ -34,6 +63,21 @@ public class Player {
         this.freePoint = freePoint;
     }
 
+    /**
+     * Rating of the player, NO_RATING if player is unrated.
+     */
+    public int getRating() {
+        return rating;
+    }
+
+    public void setRating(int rating) {
+        this.rating = rating;
+    }
+
+    public boolean hasRating() {
+        return rating != NO_RATING;
+    }
+
     public float getScore() {
         return score;
     }
@@ -48,6 +92,32 @@ public class Player {
 
     public void setMatchHistory(List<Match> matchHistory) {
         this.matchHistory = matchHistory;
+        gamesPlayed = 0;
+        whiteCount = 0;
+        lastColors = 0;
+        opponents.clear();
+        for (Match match : matchHistory) {
+            recordGame(match);
+        }
+    }
+
+    /**
+     * Count of played games, without free points.
+     */
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public int getWhiteCount() {
+        return whiteCount;
+    }
+
+    /**
+     * Colors of last two games as bitmask - bit 0 is set if player had white in the last game,
+     * bit 1 is set if player had white in the game before.
+     */
+    public int getLastColors() {
+        return lastColors;
     }
 
     public void draw() {
@@ -59,11 +129,25 @@ public class Player {
     }
 
     public boolean playedWith(Player player) {
-        return player.matchHistory.stream().anyMatch(match -> match.getPlayer2().equals(this) || match.getPlayer1().equals(this));
+        return opponents.contains(player.getId());
     }
 
     public void addMatch(Match match) {
         this.matchHistory.add(match);
+        recordGame(match);
+    }
+
+    private void recordGame(Match match) {
+        if (match.getOutcome() == OutcomeEnum.FREE_POINT) {
+            return;
+        }
+        boolean white = match.getPlayer1() == this;
+        gamesPlayed++;
+        if (white) {
+            whiteCount++;
+        }
+        lastColors = ((lastColors << 1) | (white ? 1 : 0)) & LAST_COLORS_MASK;
+        opponents.add(white ? match.getPlayer2().getId() : match.getPlayer1().getId());
     }
 
     public List<Player> getPlayersPlayed() {
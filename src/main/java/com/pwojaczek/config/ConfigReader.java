@@ -0,0 +1,131 @@
+package com.pwojaczek.config;
+
+import com.pwojaczek.Player;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Reader of tournament config file, which streams the file instead of parsing it into one JSON tree.
+ * Players are created one by one while "players" array is parsed, so registrations with hundreds of thousands
+ * of players are never held in memory as text or JSON objects. Player is given either as name,
+ * or as object with "name" key and optional "rating" key. All other keys of config are returned as settings object.
+ * Other keys of player objects, like members of a team, are passed to player listener in the same pass.
+ */
+public class ConfigReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String PLAYERS_KEY = "players";
+
+    /**
+     * Listener of players created from config, called with config value of every player - name or object.
+     */
+    public interface PlayerListener {
+        void player(Player player, Object value);
+    }
+
+    private PlayerListener playerListener = (player, value) -> { };
+
+    public void setPlayerListener(PlayerListener playerListener) {
+        this.playerListener = playerListener;
+    }
+
+    /**
+     * Method reads config file, adds its players to the list and returns remaining settings.
+     */
+    public JSONObject read(Path path, List<Player> players) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             Reader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1), BUFFER_SIZE)) {
+            return read(new JSONTokener(reader), players);
+        }
+    }
+
+    private JSONObject read(JSONTokener tokener, List<Player> players) {
+        if (tokener.nextClean() != '{') {
+            throw tokener.syntaxError("Config must begin with '{'");
+        }
+        JSONObject settings = new JSONObject();
+        boolean playersRead = false;
+        char c = tokener.nextClean();
+        if (c == '}') {
+            throw new JSONException("JSONObject[\"" + PLAYERS_KEY + "\"] not found.");
+        }
+        tokener.back();
+        while (true) {
+            String key = tokener.nextValue().toString();
+            if (tokener.nextClean() != ':') {
+                throw tokener.syntaxError("Expected a ':' after a key");
+            }
+            if (key.equals(PLAYERS_KEY)) {
+                readPlayers(tokener, players);
+                playersRead = true;
+            } else {
+                settings.put(key, tokener.nextValue());
+            }
+            c = tokener.nextClean();
+            if (c == '}') {
+                break;
+            }
+            if (c != ',') {
+                throw tokener.syntaxError("Expected a ',' or '}'");
+            }
+        }
+        if (!playersRead) {
+            throw new JSONException("JSONObject[\"" + PLAYERS_KEY + "\"] not found.");
+        }
+        return settings;
+    }
+
+    /**
+     * Method creates player with given id from config value - name, or object with "name" and optional "rating".
+     */
+    public static Player createPlayer(int id, Object value) {
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            Player player = new Player(id, object.getString("name"));
+            player.setRating(object.optInt("rating", Player.NO_RATING));
+            return player;
+        }
+        return new Player(id, value.toString());
+    }
+
+    /**
+     * Method parses players array element by element and creates players in order of registration.
+     */
+    private void readPlayers(JSONTokener tokener, List<Player> players) {
+        if (tokener.nextClean() != '[') {
+            throw tokener.syntaxError("JSONObject[\"" + PLAYERS_KEY + "\"] is not a JSONArray.");
+        }
+        if (tokener.nextClean() == ']') {
+            return;
+        }
+        tokener.back();
+        while (true) {
+            Object value = tokener.nextValue();
+            Player player = createPlayer(players.size(), value);
+            players.add(player);
+            playerListener.player(player, value);
+            char c = tokener.nextClean();
+            if (c == ']') {
+                return;
+            }
+            if (c != ',') {
+                throw tokener.syntaxError("Expected a ',' or ']'");
+            }
+            // Trailing comma before end of array is accepted, as in JSONArray.
+            if (tokener.nextClean() == ']') {
+                return;
+            }
+            tokener.back();
+        }
+    }
+}
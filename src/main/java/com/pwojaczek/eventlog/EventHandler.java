@@ -0,0 +1,24 @@
+package com.pwojaczek.eventlog;
+
+import com.pwojaczek.OutcomeEnum;
+
+/**
+ * Receiver of events replayed from event log, in the order they were logged.
+ * Board is index of the match in the round, as it was logged by pairing.
+ * Pairing of a round is complete only when pairingFinished follows its matches.
+ */
+public interface EventHandler {
+
+    void pairing(int round, int whitePlayer, int blackPlayer);
+
+    void freePoint(int round, int player);
+
+    /**
+     * Marks pairing of the round as complete - all its matches, free point included, were logged before.
+     */
+    void pairingFinished(int round, int matchesCount);
+
+    void result(int round, int board, OutcomeEnum outcome);
+
+    void roundFinished(int round);
+}
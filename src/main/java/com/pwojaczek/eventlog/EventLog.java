@@ -0,0 +1,26 @@
+package com.pwojaczek.eventlog;
+
+import com.pwojaczek.Match;
+
+import java.util.List;
+
+/**
+ * Durable log of a tournament. Every round is logged twice - when it is paired and when its results are saved,
+ * so tournament interrupted at any point can be resumed by replaying the log with EventLogReader.
+ * Both are committed by a closing record, so pairing or results cut off by a crash are never replayed.
+ */
+public interface EventLog extends AutoCloseable {
+
+    /**
+     * Method logs matches of a paired round, free point included, and marks its pairing as complete.
+     */
+    void pairing(int round, List<Match> matches);
+
+    /**
+     * Method logs outcomes of all matches of the round and marks the round as finished.
+     */
+    void results(int round, List<Match> matches);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,185 @@
+package com.pwojaczek.eventlog;
+
+import com.pwojaczek.OutcomeEnum;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader which replays event log written by FileEventLog. Log file is memory mapped and decoded
+ * record by record without allocating objects per record. Incomplete record at the end of the log,
+ * left by a crash during write, ends the replay. Record of unknown type, with invalid player or outcome,
+ * of other round than the one after the last finished round or with result of a board not paired is corruption of the log, which stops the replay with an error, so records after it are never dropped.
+ * Log of version 1 has no PAIRING_DONE records - its pairing is complete when results of the round follow.
+ */
+public class EventLogReader {
+    private static final OutcomeEnum[] OUTCOMES = OutcomeEnum.values();
+
+    /**
+     * Method replays all complete records of the log and returns length of the log up to the last committed
+     * pairing or results of a round, which is the position where appending of new records should continue.
+     * Pairing or results not committed are passed to the handler, but pairingFinished or roundFinished never follows them.
+     */
+    public long replay(Path path, int playersCount, EventHandler handler) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < FileEventLog.HEADER_SIZE || buffer.getInt() != FileEventLog.MAGIC) {
+                throw new RuntimeException("File " + path + " is not an event log");
+            }
+            int version = buffer.getInt();
+            if (version < FileEventLog.MIN_VERSION || version > FileEventLog.VERSION) {
+                throw new RuntimeException("Unsupported event log version " + version);
+            }
+            int loggedPlayersCount = buffer.getInt();
+            if (loggedPlayersCount != playersCount) {
+                throw new RuntimeException("Event log was written for " + loggedPlayersCount + " players, config has " + playersCount);
+            }
+            return new Replay(path, buffer, playersCount, handler, version).run();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while reading event log", e);
+        }
+    }
+
+    private static class Replay {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final int playersCount;
+        private final EventHandler handler;
+        private final boolean implicitPairingDone;
+        private int openPairingRound;
+        private int openPairingMatches;
+        private int playedRounds;
+        private int roundMatches;
+        private long committed;
+
+        Replay(Path path, MappedByteBuffer buffer, int playersCount, EventHandler handler, int version) {
+            this.path = path;
+            this.buffer = buffer;
+            this.playersCount = playersCount;
+            this.handler = handler;
+            this.implicitPairingDone = version < 2;
+            this.committed = buffer.position();
+        }
+
+        long run() {
+            while (buffer.hasRemaining() && replayRecord()) {
+            }
+            return committed;
+        }
+
+        /**
+         * Method replays record at the buffer position and moves position after it.
+         * Returns false, without moving position, if the record is torn - the log ends in its middle.
+         */
+        private boolean replayRecord() {
+            int position = buffer.position();
+            byte type = buffer.get(position);
+            int size = recordSize(type, position);
+            if (buffer.remaining() < size) {
+                return false;
+            }
+            buffer.get();
+            switch (type) {
+                case FileEventLog.PAIRING:
+                    int round = round(buffer.getInt(), position);
+                    int whitePlayer = player(buffer.getInt(), position);
+                    int blackPlayer = player(buffer.getInt(), position);
+                    openPairing(round);
+                    handler.pairing(round, whitePlayer, blackPlayer);
+                    break;
+                case FileEventLog.FREE_POINT:
+                    round = round(buffer.getInt(), position);
+                    int player = player(buffer.getInt(), position);
+                    openPairing(round);
+                    handler.freePoint(round, player);
+                    break;
+                case FileEventLog.PAIRING_DONE:
+                    round = round(buffer.getInt(), position);
+                    int matchesCount = buffer.getInt();
+                    openPairingMatches = 0;
+                    handler.pairingFinished(round, matchesCount);
+                    committed = buffer.position();
+                    break;
+                case FileEventLog.RESULT:
+                    round = round(buffer.getInt(), position);
+                    int board = buffer.getInt();
+                    byte outcome = buffer.get();
+                    if (board < 0 || board >= roundMatches) {
+                        throw corrupt("result of board " + board + " not paired in round " + round, position);
+                    }
+                    if (outcome < 0 || outcome >= OUTCOMES.length || OUTCOMES[outcome] == OutcomeEnum.FREE_POINT) {
+                        throw corrupt("invalid outcome " + outcome, position);
+                    }
+                    closeImplicitPairing();
+                    handler.result(round, board, OUTCOMES[outcome]);
+                    break;
+                default:
+                    round = round(buffer.getInt(), position);
+                    closeImplicitPairing();
+                    handler.roundFinished(round);
+                    playedRounds++;
+                    roundMatches = 0;
+                    committed = buffer.position();
+            }
+            return true;
+        }
+
+        private int recordSize(byte type, int position) {
+            switch (type) {
+                case FileEventLog.PAIRING:
+                    return FileEventLog.PAIRING_SIZE;
+                case FileEventLog.FREE_POINT:
+                    return FileEventLog.FREE_POINT_SIZE;
+                case FileEventLog.PAIRING_DONE:
+                    return FileEventLog.PAIRING_DONE_SIZE;
+                case FileEventLog.RESULT:
+                    return FileEventLog.RESULT_SIZE;
+                case FileEventLog.ROUND_FINISHED:
+                    return FileEventLog.ROUND_FINISHED_SIZE;
+                default:
+                    throw corrupt("unknown record type " + type, position);
+            }
+        }
+
+        private void openPairing(int round) {
+            openPairingRound = round;
+            openPairingMatches++;
+            roundMatches++;
+        }
+
+        /**
+         * Method marks pairing of version 1 log as complete, when the first result of the round follows it.
+         */
+        private void closeImplicitPairing() {
+            if (implicitPairingDone && openPairingMatches > 0) {
+                handler.pairingFinished(openPairingRound, openPairingMatches);
+                openPairingMatches = 0;
+            }
+        }
+
+        /**
+         * Method checks that the record belongs to the round following the last finished round.
+         */
+        private int round(int round, int position) {
+            if (round != playedRounds + 1) {
+                throw corrupt("record of round " + round + " after " + playedRounds + " finished rounds", position);
+            }
+            return round;
+        }
+
+        private int player(int id, int position) {
+            if (id < 0 || id >= playersCount) {
+                throw corrupt("invalid player " + id, position);
+            }
+            return id;
+        }
+
+        private RuntimeException corrupt(String reason, int position) {
+            return new RuntimeException("Event log " + path + " is corrupt - " + reason + " in record at position " + position);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.pwojaczek.eventlog;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only binary event log in a file. Log starts with header (magic, version, players count),
+ * followed by fixed size records: record type byte and int fields in big-endian order.
+ * Pairing of a round ends with PAIRING_DONE record with count of its matches, results end with ROUND_FINISHED record.
+ * Version 1 had no PAIRING_DONE records.
+ * Records of a round are collected in direct buffer and written and forced to disk together,
+ * so there is one fsync per pairing and one per results of a round instead of one per board.
+ */
+public class FileEventLog implements EventLog {
+    static final int MAGIC = 0x5343484C;
+    static final int VERSION = 2;
+    static final int MIN_VERSION = 1;
+    static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    static final byte PAIRING = 1;
+    static final byte FREE_POINT = 2;
+    static final byte RESULT = 3;
+    static final byte ROUND_FINISHED = 4;
+    static final byte PAIRING_DONE = 5;
+
+    static final int PAIRING_SIZE = 1 + 3 * Integer.BYTES;
+    static final int FREE_POINT_SIZE = 1 + 2 * Integer.BYTES;
+    static final int RESULT_SIZE = 1 + 2 * Integer.BYTES + 1;
+    static final int ROUND_FINISHED_SIZE = 1 + Integer.BYTES;
+    static final int PAIRING_DONE_SIZE = 1 + 2 * Integer.BYTES;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private FileEventLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Method creates new log for tournament with given players count. Existing log is never overwritten,
+     * because it may hold interrupted tournament - such tournament should be resumed instead.
+     */
+    public static FileEventLog create(Path path, int playersCount) {
+        try {
+            if (Files.exists(path) && Files.size(path) > 0) {
+                throw new RuntimeException("Event log " + path + " already exists, resume the tournament or remove the log");
+            }
+            FileEventLog log = new FileEventLog(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING));
+            log.buffer.putInt(MAGIC).putInt(VERSION).putInt(playersCount);
+            log.sync();
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while creating event log", e);
+        }
+    }
+
+    /**
+     * Method opens replayed log for appending. Log is cut to the given length first,
+     * so records after the last committed pairing or results, left by a crash, are dropped and new records follow.
+     */
+    public static FileEventLog append(Path path, long length) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+            channel.truncate(length);
+            channel.position(length);
+            return new FileEventLog(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while opening event log", e);
+        }
+    }
+
+    @Override
+    public void pairing(int round, List<Match> matches) {
+        for (Match match : matches) {
+            ensureRemaining(PAIRING_SIZE);
+            if (match.getOutcome() == OutcomeEnum.FREE_POINT) {
+                buffer.put(FREE_POINT).putInt(round).putInt(match.getPlayer1().getId());
+            } else {
+                buffer.put(PAIRING).putInt(round).putInt(match.getPlayer1().getId()).putInt(match.getPlayer2().getId());
+            }
+        }
+        ensureRemaining(PAIRING_DONE_SIZE);
+        buffer.put(PAIRING_DONE).putInt(round).putInt(matches.size());
+        sync();
+    }
+
+    @Override
+    public void results(int round, List<Match> matches) {
+        for (int board = 0; board < matches.size(); board++) {
+            OutcomeEnum outcome = matches.get(board).getOutcome();
+            if (outcome != OutcomeEnum.FREE_POINT) {
+                ensureRemaining(RESULT_SIZE);
+                buffer.put(RESULT).putInt(round).putInt(board).put((byte) outcome.ordinal());
+            }
+        }
+        ensureRemaining(ROUND_FINISHED_SIZE);
+        buffer.put(ROUND_FINISHED).putInt(round);
+        sync();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while closing event log", e);
+        }
+    }
+
+    private void ensureRemaining(int size) {
+        if (buffer.remaining() < size) {
+            writeBuffer();
+        }
+    }
+
+    private void writeBuffer() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing event log", e);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Method writes buffered records and forces them to disk.
+     */
+    private void sync() {
+        writeBuffer();
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing event log", e);
+        }
+    }
+}
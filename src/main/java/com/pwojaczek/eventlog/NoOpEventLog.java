@@ -0,0 +1,23 @@
+package com.pwojaczek.eventlog;
+
+import com.pwojaczek.Match;
+
+import java.util.List;
+
+/**
+ * Log which discards everything, used when event log is not configured.
+ */
+public class NoOpEventLog implements EventLog {
+
+    @Override
+    public void pairing(int round, List<Match> matches) {
+    }
+
+    @Override
+    public void results(int round, List<Match> matches) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,134 @@
+package com.pwojaczek.export;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Text writer putting UTF-8 bytes straight into a direct buffer, which is written to file channel whenever it fills up.
+ * Text is encoded by code points without creating strings or byte arrays, so characters outside of BMP given
+ * as surrogate pairs are written as one 4-byte sequence. Unpaired surrogate is written as '?', as String.getBytes does.
+ * Buffer is given by the caller, so one buffer is reused for all exported files.
+ */
+class ChannelTextWriter {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[11];
+
+    ChannelTextWriter(FileChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.clear();
+    }
+
+    /**
+     * Method appends character of BMP, surrogate is written as '?'. Text with surrogate pairs is appended by code points.
+     */
+    ChannelTextWriter append(char c) {
+        return appendCodePoint(c);
+    }
+
+    ChannelTextWriter append(String text) {
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            appendCodePoint(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return this;
+    }
+
+    /**
+     * Method appends code point as 1 to 4 bytes of UTF-8.
+     */
+    ChannelTextWriter appendCodePoint(int codePoint) {
+        if (codePoint < 0x80) {
+            put(codePoint);
+        } else if (codePoint < 0x800) {
+            put(0xC0 | codePoint >>> 6);
+            put(0x80 | codePoint & 0x3F);
+        } else if (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+            put('?');
+        } else if (codePoint < 0x10000) {
+            put(0xE0 | codePoint >>> 12);
+            put(0x80 | codePoint >>> 6 & 0x3F);
+            put(0x80 | codePoint & 0x3F);
+        } else {
+            put(0xF0 | codePoint >>> 18);
+            put(0x80 | codePoint >>> 12 & 0x3F);
+            put(0x80 | codePoint >>> 6 & 0x3F);
+            put(0x80 | codePoint & 0x3F);
+        }
+        return this;
+    }
+
+    private void put(int b) {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put((byte) b);
+    }
+
+    ChannelTextWriter append(int value) {
+        return appendRight(value, 0);
+    }
+
+    /**
+     * Method appends number right-aligned to given width with spaces.
+     */
+    ChannelTextWriter appendRight(int value, int width) {
+        int start = digits.length;
+        long remaining = Math.abs((long) value);
+        do {
+            digits[--start] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        if (value < 0) {
+            digits[--start] = '-';
+        }
+        spaces(width - (digits.length - start));
+        for (int i = start; i < digits.length; i++) {
+            append((char) digits[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Method appends score given in half points, with one decimal place, right-aligned to given width with spaces.
+     */
+    ChannelTextWriter appendScore(int halfPoints, int width) {
+        appendRight(halfPoints / 2, width - 2);
+        return append('.').append(halfPoints % 2 == 0 ? '0' : '5');
+    }
+
+    /**
+     * Method appends text left-aligned to given width in code points, cut if it's longer. Surrogate pair is never cut.
+     */
+    ChannelTextWriter appendLeft(String text, int width) {
+        int length = text.codePointCount(0, text.length());
+        append(length > width ? text.substring(0, text.offsetByCodePoints(0, width)) : text);
+        return spaces(width - length);
+    }
+
+    ChannelTextWriter spaces(int count) {
+        for (int i = 0; i < count; i++) {
+            append(' ');
+        }
+        return this;
+    }
+
+    /**
+     * Method writes buffered bytes to the channel.
+     */
+    void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing export", e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,122 @@
+package com.pwojaczek.export;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Crosstable of finished rounds in compact arrays indexed by player id and round - opponent id, color and result
+ * of every player in every round. It's built with one pass over matches of the rounds, so writers render
+ * every cell by index and never walk match histories of players. Final rank of every player is precomputed
+ * from standings, so cells can refer to opponents by rank.
+ * Colors are 'w', 'b' and '-' for free point or round without game. Results are '1', '=', '0', 'U' for free point
+ * and '-' for round without game.
+ */
+public class Crosstable {
+    public static final int NO_OPPONENT = -1;
+
+    private final String name;
+    private final int rounds;
+    private final Player[] players;
+    private final int[] order;
+    private final int[] ranks;
+    private final int[] opponents;
+    private final byte[] colors;
+    private final byte[] results;
+
+    /**
+     * Standings are all players in order of final ranks, ids of players have to be their indexes in the tournament.
+     * Finished rounds are matches of rounds with outcomes, free point as a match without black player.
+     */
+    public Crosstable(String name, List<Player> standings, List<List<Match>> finishedRounds) {
+        int size = standings.size();
+        this.name = name;
+        this.rounds = finishedRounds.size();
+        this.players = new Player[size];
+        this.order = new int[size];
+        this.ranks = new int[size];
+        for (int rank = 0; rank < size; rank++) {
+            Player player = standings.get(rank);
+            players[player.getId()] = player;
+            order[rank] = player.getId();
+            ranks[player.getId()] = rank + 1;
+        }
+        this.opponents = new int[size * rounds];
+        this.colors = new byte[size * rounds];
+        this.results = new byte[size * rounds];
+        Arrays.fill(opponents, NO_OPPONENT);
+        Arrays.fill(colors, (byte) '-');
+        Arrays.fill(results, (byte) '-');
+        for (int round = 0; round < rounds; round++) {
+            for (Match match : finishedRounds.get(round)) {
+                OutcomeEnum outcome = match.getOutcome();
+                int white = match.getPlayer1().getId();
+                if (outcome == OutcomeEnum.FREE_POINT) {
+                    results[white * rounds + round] = 'U';
+                    continue;
+                }
+                int black = match.getPlayer2().getId();
+                set(white, round, black, 'w', outcome == OutcomeEnum.WIN ? '1' : outcome == OutcomeEnum.LOSS ? '0' : '=');
+                set(black, round, white, 'b', outcome == OutcomeEnum.WIN ? '0' : outcome == OutcomeEnum.LOSS ? '1' : '=');
+            }
+        }
+    }
+
+    private void set(int player, int round, int opponent, char color, char result) {
+        int index = player * rounds + round;
+        opponents[index] = opponent;
+        colors[index] = (byte) color;
+        results[index] = (byte) result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Count of finished rounds in the crosstable.
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    public int getPlayersCount() {
+        return players.length;
+    }
+
+    /**
+     * Player with given final rank, counted from 1.
+     */
+    public Player playerAt(int rank) {
+        return players[order[rank - 1]];
+    }
+
+    public Player getPlayer(int id) {
+        return players[id];
+    }
+
+    /**
+     * Final rank of player with given id, counted from 1.
+     */
+    public int rankOf(int id) {
+        return ranks[id];
+    }
+
+    /**
+     * Id of opponent of the player in the round counted from 0, NO_OPPONENT for free point or round without game.
+     */
+    public int opponent(int id, int round) {
+        return opponents[id * rounds + round];
+    }
+
+    public char color(int id, int round) {
+        return (char) colors[id * rounds + round];
+    }
+
+    public char result(int id, int round) {
+        return (char) results[id * rounds + round];
+    }
+}
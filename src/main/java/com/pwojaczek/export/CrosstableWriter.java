@@ -0,0 +1,9 @@
+package com.pwojaczek.export;
+
+/**
+ * Writer rendering crosstable in one export format.
+ */
+interface CrosstableWriter {
+
+    void write(Crosstable crosstable, ChannelTextWriter writer);
+}
@@ -0,0 +1,64 @@
+package com.pwojaczek.export;
+
+import com.pwojaczek.Player;
+
+/**
+ * Writer of crosstable as CSV - header and one record per player in order of final ranks:
+ * rank,id,name,rating,score and a cell for every round. Cell is final rank of opponent, color and result, e.g. 12w1,
+ * U for free point and - for round without game. Rating is empty for unrated players.
+ */
+class CsvCrosstableWriter implements CrosstableWriter {
+
+    @Override
+    public void write(Crosstable crosstable, ChannelTextWriter writer) {
+        writer.append("rank,id,name,rating,score");
+        for (int round = 1; round <= crosstable.getRounds(); round++) {
+            writer.append(',').append(round);
+        }
+        writer.append('\n');
+        for (int rank = 1; rank <= crosstable.getPlayersCount(); rank++) {
+            Player player = crosstable.playerAt(rank);
+            int id = player.getId();
+            writer.append(rank).append(',').append(id).append(',');
+            appendField(writer, player.getName());
+            writer.append(',');
+            if (player.hasRating()) {
+                writer.append(player.getRating());
+            }
+            writer.append(',').appendScore(Math.round(player.getScore() * 2), 0);
+            for (int round = 0; round < crosstable.getRounds(); round++) {
+                writer.append(',');
+                appendCell(writer, crosstable, id, round);
+            }
+            writer.append('\n');
+        }
+    }
+
+    /**
+     * Method appends crosstable cell of the player in the round - opponent's rank, color and result.
+     */
+    static void appendCell(ChannelTextWriter writer, Crosstable crosstable, int id, int round) {
+        int opponent = crosstable.opponent(id, round);
+        if (opponent != Crosstable.NO_OPPONENT) {
+            writer.append(crosstable.rankOf(opponent)).append(crosstable.color(id, round));
+        }
+        writer.append(crosstable.result(id, round));
+    }
+
+    private static void appendField(ChannelTextWriter writer, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.append(value);
+            return;
+        }
+        writer.append('"');
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            if (codePoint == '"') {
+                writer.append('"');
+            }
+            writer.appendCodePoint(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        writer.append('"');
+    }
+}
@@ -0,0 +1,26 @@
+package com.pwojaczek.export;
+
+public enum ExportFormat {
+    TRF("trf"), CSV("csv"), HTML("html");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    CrosstableWriter create() {
+        switch (this) {
+            case CSV:
+                return new CsvCrosstableWriter();
+            case HTML:
+                return new HtmlCrosstableWriter();
+            default:
+                return new TrfCrosstableWriter();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.pwojaczek.export;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Exporter of crosstables to files. Every file is written through file channel from one direct buffer,
+ * which is allocated once and reused for all exports, so exporter must not be used by more threads at once.
+ */
+public class Exporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Method writes crosstable in given format to file at given path, replacing its content.
+     */
+    public void export(Crosstable crosstable, ExportFormat format, Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ChannelTextWriter writer = new ChannelTextWriter(channel, buffer);
+            format.create().write(crosstable, writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while exporting " + format + " to " + path, e);
+        }
+    }
+}
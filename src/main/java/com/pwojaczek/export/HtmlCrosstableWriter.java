@@ -0,0 +1,63 @@
+package com.pwojaczek.export;
+
+import com.pwojaczek.Player;
+
+/**
+ * Writer of crosstable as standalone HTML page with one table row per player in order of final ranks.
+ * Cells of rounds are the same as in CSV crosstable.
+ */
+class HtmlCrosstableWriter implements CrosstableWriter {
+
+    @Override
+    public void write(Crosstable crosstable, ChannelTextWriter writer) {
+        writer.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>");
+        appendEscaped(writer, crosstable.getName());
+        writer.append("</title>\n</head>\n<body>\n<h1>");
+        appendEscaped(writer, crosstable.getName());
+        writer.append("</h1>\n<table>\n<tr><th>Rank</th><th>Name</th><th>Rating</th><th>Score</th>");
+        for (int round = 1; round <= crosstable.getRounds(); round++) {
+            writer.append("<th>").append(round).append("</th>");
+        }
+        writer.append("</tr>\n");
+        for (int rank = 1; rank <= crosstable.getPlayersCount(); rank++) {
+            Player player = crosstable.playerAt(rank);
+            writer.append("<tr><td>").append(rank).append("</td><td>");
+            appendEscaped(writer, player.getName());
+            writer.append("</td><td>");
+            if (player.hasRating()) {
+                writer.append(player.getRating());
+            }
+            writer.append("</td><td>").appendScore(Math.round(player.getScore() * 2), 0).append("</td>");
+            for (int round = 0; round < crosstable.getRounds(); round++) {
+                writer.append("<td>");
+                CsvCrosstableWriter.appendCell(writer, crosstable, player.getId(), round);
+                writer.append("</td>");
+            }
+            writer.append("</tr>\n");
+        }
+        writer.append("</table>\n</body>\n</html>\n");
+    }
+
+    private static void appendEscaped(ChannelTextWriter writer, String value) {
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            i += Character.charCount(codePoint);
+            switch (codePoint) {
+                case '&':
+                    writer.append("&amp;");
+                    break;
+                case '<':
+                    writer.append("&lt;");
+                    break;
+                case '>':
+                    writer.append("&gt;");
+                    break;
+                case '"':
+                    writer.append("&quot;");
+                    break;
+                default:
+                    writer.appendCodePoint(codePoint);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.pwojaczek.export;
+
+import com.pwojaczek.Player;
+
+/**
+ * Writer of FIDE Tournament Report File (TRF-16). Header has tournament name (012), count of players (062)
+ * and count of rounds (XXR), followed by one 001 record per player in order of starting ranks, which are ids counted from 1.
+ * Every round of the record has opponent's starting rank, color and result at fixed columns, counted in characters of UTF-8 text.
+ * Free point is written as pairing-allocated bye "0000 - U", round without opponent always has zero-padded "0000".
+ */
+class TrfCrosstableWriter implements CrosstableWriter {
+
+    @Override
+    public void write(Crosstable crosstable, ChannelTextWriter writer) {
+        writer.append("012 ").append(crosstable.getName()).append('\n');
+        writer.append("062 ").append(crosstable.getPlayersCount()).append('\n');
+        writer.append("XXR ").append(crosstable.getRounds()).append('\n');
+        for (int id = 0; id < crosstable.getPlayersCount(); id++) {
+            Player player = crosstable.getPlayer(id);
+            writer.append("001 ").appendRight(id + 1, 4).spaces(6).appendLeft(player.getName(), 33).append(' ');
+            if (player.hasRating()) {
+                writer.appendRight(player.getRating(), 4);
+            } else {
+                writer.spaces(4);
+            }
+            writer.spaces(28).appendScore(Math.round(player.getScore() * 2), 4).append(' ').appendRight(crosstable.rankOf(id), 4);
+            for (int round = 0; round < crosstable.getRounds(); round++) {
+                int opponent = crosstable.opponent(id, round);
+                char result = crosstable.result(id, round);
+                writer.spaces(2);
+                if (opponent == Crosstable.NO_OPPONENT) {
+                    writer.append("0000");
+                } else {
+                    writer.appendRight(opponent + 1, 4);
+                }
+                writer.append(' ').append(crosstable.color(id, round))
+                        .append(' ').append(result == '-' ? 'Z' : result);
+            }
+            writer.append('\n');
+        }
+    }
+}
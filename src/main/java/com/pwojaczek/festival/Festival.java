@@ -0,0 +1,169 @@
+package com.pwojaczek.festival;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Festival of many sections, which start their rounds at the same moment. The next round of all active sections
+ * is paired at once on shared pool of pairing workers with fixed count of threads and queue bounded by count of sections,
+ * so start of a round takes about as long as pairing of the slowest section instead of all of them one after another,
+ * and festival with more sections never starts more threads. Progress of every section is updated by workers.
+ * Paired rounds are then played section by section, results of MANUAL sections are collected as in single tournament.
+ * All sections read results from one console reader, so none of them reads ahead input meant for another one.
+ */
+public class Festival implements AutoCloseable {
+    private final List<Section> sections;
+    private final List<SectionProgress> progress;
+    private final ThreadPoolExecutor pairingPool;
+    private Consumer<SectionProgress> progressListener = sectionProgress -> { };
+
+    public Festival(List<Section> sections, int pairingThreads) {
+        Set<String> names = new HashSet<>();
+        List<SectionProgress> progress = new ArrayList<>(sections.size());
+        Scanner console = new Scanner(System.in);
+        for (Section section : sections) {
+            if (!names.add(section.getName())) {
+                throw new IllegalArgumentException("Festival has more sections named " + section.getName());
+            }
+            section.getMatchService().setConsole(console);
+            progress.add(new SectionProgress(section));
+        }
+        this.sections = sections;
+        this.progress = Collections.unmodifiableList(progress);
+        this.pairingPool = new ThreadPoolExecutor(pairingThreads, pairingThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, sections.size())));
+    }
+
+    /**
+     * Method loads festival config: "sections" array of objects with "name", "config" path of section config
+     * and optional "teams" flag of team section, and optional "pairingThreads", by default count of processors.
+     */
+    public static Festival load(String configPath) {
+        JSONObject config;
+        try (Reader reader = Files.newBufferedReader(Paths.get(configPath), StandardCharsets.UTF_8)) {
+            config = new JSONObject(new JSONTokener(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while loading festival " + configPath, e);
+        }
+        JSONArray jsonSections = config.getJSONArray("sections");
+        List<Section> sections = new ArrayList<>(jsonSections.length());
+        for (int i = 0; i < jsonSections.length(); i++) {
+            JSONObject jsonSection = jsonSections.getJSONObject(i);
+            String name = jsonSection.getString("name");
+            String sectionConfig = jsonSection.getString("config");
+            sections.add(jsonSection.optBoolean("teams") ? TeamSection.load(name, sectionConfig) : IndividualSection.load(name, sectionConfig));
+        }
+        return new Festival(sections, config.optInt("pairingThreads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    public List<Section> getSections() {
+        return sections;
+    }
+
+    /**
+     * Progress of sections in order of sections.
+     */
+    public List<SectionProgress> getProgress() {
+        return progress;
+    }
+
+    /**
+     * Sets listener notified when pairing of a section starts and ends. It's called from pairing workers.
+     */
+    public void setProgressListener(Consumer<SectionProgress> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Method plays all rounds of all sections and prints their final results. Sections end independently -
+     * after their last round, or when their round can't be paired.
+     */
+    public void play() {
+        for (Section section : sections) {
+            section.start();
+        }
+        try {
+            while (pairRound() > 0) {
+                for (SectionProgress sectionProgress : progress) {
+                    if (sectionProgress.getState() == SectionProgress.State.PAIRED) {
+                        sectionProgress.getSection().playRound();
+                        sectionProgress.played();
+                    }
+                }
+            }
+        } finally {
+            for (Section section : sections) {
+                section.finish();
+            }
+        }
+    }
+
+    /**
+     * Method pairs the next round of all active sections on the pairing pool and waits until all of them are paired.
+     * Returns count of sections whose round was paired.
+     */
+    public int pairRound() {
+        List<SectionProgress> pairing = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (SectionProgress sectionProgress : progress) {
+            if (sectionProgress.isActive()) {
+                sectionProgress.queued(sectionProgress.getSection().getPlayedRounds() + 1);
+                pairing.add(sectionProgress);
+                futures.add(pairingPool.submit(() -> pair(sectionProgress)));
+            }
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Pairing of festival round was interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Pairing of festival section failed", e.getCause());
+        }
+        int paired = 0;
+        for (SectionProgress sectionProgress : pairing) {
+            if (sectionProgress.getState() == SectionProgress.State.PAIRED) {
+                paired++;
+            }
+        }
+        return paired;
+    }
+
+    private void pair(SectionProgress sectionProgress) {
+        sectionProgress.pairing();
+        progressListener.accept(sectionProgress);
+        long start = System.nanoTime();
+        boolean complete = sectionProgress.getSection().pairNextRound().isComplete();
+        sectionProgress.paired(complete, System.nanoTime() - start);
+        progressListener.accept(sectionProgress);
+    }
+
+    @Override
+    public void close() {
+        pairingPool.shutdown();
+    }
+}
@@ -0,0 +1,66 @@
+package com.pwojaczek.festival;
+
+import com.pwojaczek.MatchService;
+import com.pwojaczek.pairing.PairingResult;
+
+/**
+ * Section of individual players, played by its own MatchService loaded from tournament config.
+ */
+public class IndividualSection implements Section {
+    private final String name;
+    private final MatchService matchService;
+
+    public IndividualSection(String name, MatchService matchService) {
+        this.name = name;
+        this.matchService = matchService;
+    }
+
+    /**
+     * Method loads section from tournament config file, the same as config of single tournament.
+     */
+    public static IndividualSection load(String name, String configPath) {
+        MatchService matchService = new MatchService();
+        matchService.loadTournament(configPath);
+        return new IndividualSection(name, matchService);
+    }
+
+    @Override
+    public MatchService getMatchService() {
+        return matchService;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getRounds() {
+        return matchService.getRounds();
+    }
+
+    @Override
+    public int getPlayedRounds() {
+        return matchService.getPlayedRounds();
+    }
+
+    @Override
+    public void start() {
+        matchService.startTournament("section-" + name);
+    }
+
+    @Override
+    public PairingResult pairNextRound() {
+        return matchService.pairNextRound();
+    }
+
+    @Override
+    public boolean playRound() {
+        return matchService.playRound();
+    }
+
+    @Override
+    public void finish() {
+        matchService.finishTournament();
+    }
+}
@@ -0,0 +1,43 @@
+package com.pwojaczek.festival;
+
+import com.pwojaczek.MatchService;
+import com.pwojaczek.pairing.PairingResult;
+
+/**
+ * Section of a festival - independent tournament with its own players, rounds and pairing rules.
+ * Festival pairs the next round of all sections at once, so pairNextRound is called on a worker thread,
+ * other methods are called by the festival thread. Section is never used by two threads at the same time.
+ */
+public interface Section {
+
+    String getName();
+
+    /**
+     * MatchService which plays rounds of the section.
+     */
+    MatchService getMatchService();
+
+    int getRounds();
+
+    int getPlayedRounds();
+
+    /**
+     * Method starts the section before its first round is played.
+     */
+    void start();
+
+    /**
+     * Method pairs the next round, which stays pending until it's played. Returns incomplete result, if it can't be paired.
+     */
+    PairingResult pairNextRound();
+
+    /**
+     * Method plays the pending round, or pairs and plays the next round, if there is none. Returns false, if it can't be paired.
+     */
+    boolean playRound();
+
+    /**
+     * Method prints final results of the section and closes it.
+     */
+    void finish();
+}
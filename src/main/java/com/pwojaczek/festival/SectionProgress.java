@@ -0,0 +1,71 @@
+package com.pwojaczek.festival;
+
+/**
+ * Progress of a section in the festival - state of its current round and time of its last pairing.
+ * Progress is updated by pairing workers, so it can be read from any thread while the round is paired.
+ */
+public class SectionProgress {
+
+    public enum State {
+        WAITING, QUEUED, PAIRING, PAIRED, PLAYED, STOPPED, FINISHED
+    }
+
+    private final Section section;
+    private volatile State state = State.WAITING;
+    private volatile int round;
+    private volatile long pairingNanos;
+
+    SectionProgress(Section section) {
+        this.section = section;
+    }
+
+    public Section getSection() {
+        return section;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Number of the round which is paired or played, or of the last played round.
+     */
+    public int getRound() {
+        return round;
+    }
+
+    public long getPairingNanos() {
+        return pairingNanos;
+    }
+
+    /**
+     * Section still has rounds to play and its last round could be paired.
+     */
+    public boolean isActive() {
+        return state != State.STOPPED && state != State.FINISHED && section.getPlayedRounds() < section.getRounds();
+    }
+
+    void queued(int round) {
+        this.round = round;
+        this.state = State.QUEUED;
+    }
+
+    void pairing() {
+        this.state = State.PAIRING;
+    }
+
+    void paired(boolean complete, long nanos) {
+        this.pairingNanos = nanos;
+        this.state = complete ? State.PAIRED : State.STOPPED;
+    }
+
+    void played() {
+        this.state = section.getPlayedRounds() == section.getRounds() ? State.FINISHED : State.PLAYED;
+    }
+
+    @Override
+    public String toString() {
+        return section.getName() + ": round " + round + "/" + section.getRounds() + " " + state
+                + ", paired in " + pairingNanos / 1_000_000 + " ms";
+    }
+}
@@ -0,0 +1,47 @@
+package com.pwojaczek.festival;
+
+import com.pwojaczek.Player;
+
+import java.util.List;
+
+/**
+ * Team of a team section. Team is paired as a single player, whose score is count of match points - 1 for won match,
+ * 0.5 for drawn one. Members play boards in order of the list, game points are sum of their board points.
+ */
+public class Team {
+    private final Player player;
+    private final List<Player> members;
+    private float gamePoints;
+
+    Team(Player player, List<Player> members) {
+        this.player = player;
+        this.members = members;
+    }
+
+    public String getName() {
+        return player.getName();
+    }
+
+    /**
+     * Player which represents the team in pairing.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    public List<Player> getMembers() {
+        return members;
+    }
+
+    public float getMatchPoints() {
+        return player.getScore();
+    }
+
+    public float getGamePoints() {
+        return gamePoints;
+    }
+
+    void addGamePoints(float points) {
+        gamePoints += points;
+    }
+}
@@ -0,0 +1,110 @@
+package com.pwojaczek.festival;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Match of two teams. Team paired with white plays white on odd boards and black on even boards.
+ * Board results add up to game points of both teams, team with more game points wins the match.
+ */
+public class TeamMatch {
+    private final Match match;
+    private final Team white;
+    private final Team black;
+    private final List<Match> boards;
+
+    TeamMatch(Match match, Team white, Team black, int boardsCount) {
+        this.match = match;
+        this.white = white;
+        this.black = black;
+        List<Match> boards = new ArrayList<>(boardsCount);
+        for (int board = 0; board < boardsCount; board++) {
+            Player whiteMember = white.getMembers().get(board);
+            Player blackMember = black.getMembers().get(board);
+            boards.add(board % 2 == 0 ? new Match(whiteMember, blackMember) : new Match(blackMember, whiteMember));
+        }
+        this.boards = Collections.unmodifiableList(boards);
+    }
+
+    /**
+     * Match of teams as paired by MatchService of the section, its outcome is set when the match is finished.
+     */
+    public Match getMatch() {
+        return match;
+    }
+
+    public Team getWhite() {
+        return white;
+    }
+
+    public Team getBlack() {
+        return black;
+    }
+
+    /**
+     * Games of the match by boards. Outcomes of all boards have to be set before the round is finished.
+     */
+    public List<Match> getBoards() {
+        return boards;
+    }
+
+    /**
+     * Game points of team paired with white. Throws RuntimeException, if some board has no outcome.
+     */
+    public float getWhiteGamePoints() {
+        float points = 0;
+        for (int board = 0; board < boards.size(); board++) {
+            points += boardPoints(boards.get(board), board % 2 == 0);
+        }
+        return points;
+    }
+
+    /**
+     * Method adds board points to members and game points to teams and sets outcome of the team match.
+     */
+    void finish() {
+        float whitePoints = getWhiteGamePoints();
+        float blackPoints = boards.size() - whitePoints;
+        for (Match game : boards) {
+            OutcomeEnum outcome = game.getOutcome();
+            if (outcome == OutcomeEnum.WIN) {
+                game.getPlayer1().win();
+            } else if (outcome == OutcomeEnum.LOSS) {
+                game.getPlayer2().win();
+            } else {
+                game.getPlayer1().draw();
+                game.getPlayer2().draw();
+            }
+            game.getPlayer1().addMatch(game);
+            game.getPlayer2().addMatch(game);
+        }
+        white.addGamePoints(whitePoints);
+        black.addGamePoints(blackPoints);
+        if (whitePoints > blackPoints) {
+            match.setOutcome(OutcomeEnum.WIN);
+        } else if (whitePoints < blackPoints) {
+            match.setOutcome(OutcomeEnum.LOSS);
+        } else {
+            match.setOutcome(OutcomeEnum.DRAW);
+        }
+    }
+
+    /**
+     * Points of the board for the member of team paired with white, who plays white on the board, if memberIsWhite is set.
+     */
+    private static float boardPoints(Match board, boolean memberIsWhite) {
+        OutcomeEnum outcome = board.getOutcome();
+        if (outcome == null) {
+            throw new RuntimeException("Board of match " + board.getPlayer1().getName() + " - " + board.getPlayer2().getName() + " has no outcome");
+        }
+        if (outcome == OutcomeEnum.DRAW) {
+            return 0.5f;
+        }
+        return outcome == (memberIsWhite ? OutcomeEnum.WIN : OutcomeEnum.LOSS) ? 1f : 0f;
+    }
+}
@@ -0,0 +1,201 @@
+package com.pwojaczek.festival;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.MatchService;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+import com.pwojaczek.TournamentType;
+import com.pwojaczek.config.ConfigReader;
+import com.pwojaczek.outcome.OutcomeModel;
+import com.pwojaczek.outcome.OutcomeModelType;
+import com.pwojaczek.pairing.PairingResult;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Section of teams. Teams are paired as players by MatchService of the section, every paired match of teams
+ * is then played on "boards" boards by members of both teams. Team which wins more boards wins the match.
+ * Team receiving free point wins the match and gets game points of all boards.
+ * Config is config of single tournament, whose players are teams given as objects with "name" and "members" array,
+ * members are given as players of single tournament. First "boards" members of a team play, the rest are reserves.
+ * Results of MANUAL section are collected for every board, numbered through all team matches of the round.
+ */
+public class TeamSection implements Section {
+    private final String name;
+    private final MatchService matchService;
+    private final List<Team> teams;
+    private final int boards;
+    private final OutcomeModel outcomeModel;
+    private List<Match> pendingRound;
+    private List<TeamMatch> pendingMatches;
+
+    public TeamSection(String name, MatchService matchService, List<Team> teams, int boards, OutcomeModel outcomeModel) {
+        this.name = name;
+        this.matchService = matchService;
+        this.teams = teams;
+        this.boards = boards;
+        this.outcomeModel = outcomeModel;
+    }
+
+    /**
+     * Method loads team section from config file. Outcomes of AUTOMATIC section are drawn by model from "outcomeModel" key,
+     * ELO model is used by default if any member has rating. Config is read in one pass - members are created
+     * from team objects while teams are streamed by ConfigReader.
+     */
+    public static TeamSection load(String name, String configPath) {
+        List<Player> members = new ArrayList<>();
+        List<List<Player>> teamMembers = new ArrayList<>();
+        ConfigReader configReader = new ConfigReader();
+        configReader.setPlayerListener((team, value) -> {
+            if (!(value instanceof JSONObject)) {
+                throw new RuntimeException("Team " + team.getName() + " has no members");
+            }
+            JSONArray jsonMembers = ((JSONObject) value).getJSONArray("members");
+            List<Player> ofTeam = new ArrayList<>(jsonMembers.length());
+            for (Object jsonMember : jsonMembers) {
+                Player member = ConfigReader.createPlayer(members.size(), jsonMember);
+                members.add(member);
+                ofTeam.add(member);
+            }
+            teamMembers.add(ofTeam);
+        });
+        MatchService matchService = new MatchService();
+        JSONObject config = matchService.loadTournament(configPath, configReader);
+        int boards = config.getInt("boards");
+        List<Team> teams = new ArrayList<>(teamMembers.size());
+        for (int i = 0; i < teamMembers.size(); i++) {
+            Player player = matchService.getPlayers().get(i);
+            if (teamMembers.get(i).size() < boards) {
+                throw new RuntimeException("Team " + player.getName() + " has less than " + boards + " members");
+            }
+            teams.add(new Team(player, teamMembers.get(i)));
+        }
+        boolean rated = members.stream().anyMatch(Player::hasRating);
+        OutcomeModelType outcomeModelType = OutcomeModelType.valueOf(config.optString("outcomeModel",
+                (rated ? OutcomeModelType.ELO : OutcomeModelType.UNIFORM).name()));
+        return new TeamSection(name, matchService, teams, boards, outcomeModelType.create(matchService.getDrawRate()));
+    }
+
+    @Override
+    public MatchService getMatchService() {
+        return matchService;
+    }
+
+    public List<Team> getTeams() {
+        return teams;
+    }
+
+    /**
+     * Matches of the pending round, null if there is no pending round. Free point is not a team match.
+     */
+    public List<TeamMatch> getPendingMatches() {
+        return pendingMatches;
+    }
+
+    /**
+     * Teams from the highest count of match points, teams with equal match points by game points.
+     */
+    public List<Team> getStandings() {
+        List<Team> standings = new ArrayList<>(teams);
+        standings.sort(Comparator.comparing(Team::getMatchPoints).thenComparing(Team::getGamePoints).reversed());
+        return standings;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getRounds() {
+        return matchService.getRounds();
+    }
+
+    @Override
+    public int getPlayedRounds() {
+        return matchService.getPlayedRounds();
+    }
+
+    @Override
+    public void start() {
+        matchService.startTournament("section-" + name);
+    }
+
+    @Override
+    public PairingResult pairNextRound() {
+        PairingResult result = matchService.pairNextRound();
+        if (result.isComplete()) {
+            pendingRound = result.getMatches();
+            pendingMatches = new ArrayList<>(pendingRound.size());
+            for (Match match : pendingRound) {
+                if (match.getOutcome() != OutcomeEnum.FREE_POINT) {
+                    pendingMatches.add(new TeamMatch(match, team(match.getPlayer1()), team(match.getPlayer2()), boards));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method plays the pending round. Outcomes of boards of AUTOMATIC section are drawn with outcome model of the section,
+     * outcomes of boards of MANUAL section are collected by MatchService of the section - from its result server
+     * if it's running, otherwise from console.
+     */
+    @Override
+    public boolean playRound() {
+        if (pendingMatches == null && !pairNextRound().isComplete()) {
+            return false;
+        }
+        if (matchService.getTournamentType() == TournamentType.AUTOMATIC) {
+            for (TeamMatch match : pendingMatches) {
+                outcomeModel.outcomes(match.getBoards(), matchService.getRandom());
+            }
+        } else {
+            List<Match> boards = new ArrayList<>(pendingMatches.size() * this.boards);
+            for (TeamMatch match : pendingMatches) {
+                boards.addAll(match.getBoards());
+            }
+            matchService.collectOutcomes(boards);
+        }
+        finishRound();
+        return true;
+    }
+
+    /**
+     * Method finishes the pending round, whose all boards have outcomes. Board results add up to game points of teams
+     * and decide outcomes of team matches, which are then finished by MatchService of the section.
+     */
+    public void finishRound() {
+        if (pendingMatches == null) {
+            throw new RuntimeException("Team section " + name + " has no pending round");
+        }
+        for (TeamMatch match : pendingMatches) {
+            // Every board is checked before any score is changed.
+            match.getWhiteGamePoints();
+        }
+        for (TeamMatch match : pendingMatches) {
+            match.finish();
+        }
+        for (Match match : pendingRound) {
+            if (match.getOutcome() == OutcomeEnum.FREE_POINT) {
+                team(match.getPlayer1()).addGamePoints(boards);
+            }
+        }
+        matchService.finishRound(pendingRound);
+        pendingRound = null;
+        pendingMatches = null;
+    }
+
+    @Override
+    public void finish() {
+        matchService.finishTournament();
+    }
+
+    private Team team(Player player) {
+        return teams.get(player.getId());
+    }
+}
@@ -0,0 +1,318 @@
+package com.pwojaczek.metrics;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+import com.pwojaczek.pairing.PairingResult;
+import com.pwojaczek.pairing.PairingStatistics;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of pairing rounds of a tournament: latency histogram, work counters of pairing engine,
+ * allocation of pairing thread and quality of pairings. Quality is measured on paired boards:
+ * score difference of opponents (floater is a player paired outside of his score group)
+ * and color imbalance of players after the round - difference between counts of their white and black games.
+ * Metrics are updated once per round, so they can be kept on for every tournament.
+ * Allocation is measured on the thread calling the engine, work of fork-join workers is not included.
+ */
+public class PairingMetrics implements PairingMetricsMBean {
+    private static final int LATENCY_BUCKETS = 40;
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS);
+    private final LongAdder roundsPaired = new LongAdder();
+    private final LongAdder roundsNotPossible = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong lastLatencyNanos = new AtomicLong();
+    private final LongAdder candidates = new LongAdder();
+    private final LongAdder rematchRejections = new LongAdder();
+    private final LongAdder colorRejections = new LongAdder();
+    private final LongAdder fixAttempts = new LongAdder();
+    private final LongAdder failedFixes = new LongAdder();
+    private final LongAdder prunedFixes = new LongAdder();
+    private final LongAdder augmentingSearches = new LongAdder();
+    private final LongAdder graphBuildNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder pairs = new LongAdder();
+    private final LongAdder floaters = new LongAdder();
+    private final LongAdder scoreDifferenceHalfPoints = new LongAdder();
+    private final AtomicLong maxScoreDifferenceHalfPoints = new AtomicLong();
+    private final LongAdder colorImbalance = new LongAdder();
+    private final AtomicLong maxColorImbalance = new AtomicLong();
+    private ObjectName objectName;
+
+    /**
+     * Bytes allocated so far by the current thread, -1 if JVM can't measure it.
+     */
+    public static long currentThreadAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+            if (allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled()) {
+                return allocation.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Method records pairing of a round - its latency, bytes allocated by it (negative if unknown),
+     * work of pairing engine and quality of pairings, if the round could be paired.
+     * Players of paired matches already have the matches in their histories.
+     */
+    public void record(PairingResult result, long nanos, long allocated) {
+        latencyHistogram.incrementAndGet(latencyBucket(nanos));
+        latencyNanos.add(nanos);
+        lastLatencyNanos.set(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        if (allocated >= 0) {
+            allocatedBytes.add(allocated);
+        }
+        PairingStatistics statistics = result.getStatistics();
+        candidates.add(statistics.getCandidates());
+        rematchRejections.add(statistics.getRematchRejections());
+        colorRejections.add(statistics.getColorRejections());
+        fixAttempts.add(statistics.getFixAttempts());
+        failedFixes.add(statistics.getFailedFixes());
+        prunedFixes.add(statistics.getPrunedFixes());
+        augmentingSearches.add(statistics.getAugmentingSearches());
+        graphBuildNanos.add(statistics.getGraphBuildNanos());
+        if (!result.isComplete()) {
+            roundsNotPossible.increment();
+            return;
+        }
+        roundsPaired.increment();
+        for (Match match : result.getMatches()) {
+            if (match.getOutcome() == OutcomeEnum.FREE_POINT) {
+                continue;
+            }
+            long difference = Math.abs(Math.round(match.getPlayer1().getScore() * 2) - Math.round(match.getPlayer2().getScore() * 2));
+            pairs.increment();
+            if (difference != 0) {
+                floaters.add(2);
+            }
+            scoreDifferenceHalfPoints.add(difference);
+            maxScoreDifferenceHalfPoints.accumulateAndGet(difference, Math::max);
+            recordColorImbalance(match.getPlayer1());
+            recordColorImbalance(match.getPlayer2());
+        }
+    }
+
+    private void recordColorImbalance(Player player) {
+        long imbalance = Math.abs(2L * player.getWhiteCount() - player.getGamesPlayed());
+        colorImbalance.add(imbalance);
+        maxColorImbalance.accumulateAndGet(imbalance, Math::max);
+    }
+
+    private static int latencyBucket(long nanos) {
+        long micros = Math.max(nanos / 1000, 1);
+        return Math.min(63 - Long.numberOfLeadingZeros(micros), LATENCY_BUCKETS - 1);
+    }
+
+    /**
+     * Method registers metrics in platform MBean server as com.pwojaczek:type=PairingMetrics,name=given name.
+     */
+    public void register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("com.pwojaczek:type=PairingMetrics,name=" + ObjectName.quote(name));
+            server.registerMBean(this, objectName);
+            this.objectName = objectName;
+        } catch (JMException e) {
+            throw new RuntimeException("Error while registering pairing metrics " + name, e);
+        }
+    }
+
+    public void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new RuntimeException("Error while unregistering pairing metrics " + objectName, e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public long getRoundsPaired() {
+        return roundsPaired.sum();
+    }
+
+    @Override
+    public long getRoundsNotPossible() {
+        return roundsNotPossible.sum();
+    }
+
+    @Override
+    public double getMeanLatencyMillis() {
+        long rounds = roundsPaired.sum() + roundsNotPossible.sum();
+        return rounds == 0 ? 0 : latencyNanos.sum() / NANOS_PER_MILLI / rounds;
+    }
+
+    @Override
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getLastLatencyMillis() {
+        return lastLatencyNanos.get() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        long[] histogram = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            histogram[i] = latencyHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public long getCandidates() {
+        return candidates.sum();
+    }
+
+    @Override
+    public long getRematchRejections() {
+        return rematchRejections.sum();
+    }
+
+    @Override
+    public long getColorRejections() {
+        return colorRejections.sum();
+    }
+
+    @Override
+    public long getFixAttempts() {
+        return fixAttempts.sum();
+    }
+
+    @Override
+    public long getFailedFixes() {
+        return failedFixes.sum();
+    }
+
+    @Override
+    public long getPrunedFixes() {
+        return prunedFixes.sum();
+    }
+
+    @Override
+    public long getAugmentingSearches() {
+        return augmentingSearches.sum();
+    }
+
+    @Override
+    public double getGraphBuildMillis() {
+        return graphBuildNanos.sum() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return currentThreadAllocatedBytes() < 0 ? -1 : allocatedBytes.sum();
+    }
+
+    @Override
+    public long getPairs() {
+        return pairs.sum();
+    }
+
+    @Override
+    public long getFloaters() {
+        return floaters.sum();
+    }
+
+    @Override
+    public double getMeanScoreDifference() {
+        long pairsCount = pairs.sum();
+        return pairsCount == 0 ? 0 : scoreDifferenceHalfPoints.sum() / 2d / pairsCount;
+    }
+
+    @Override
+    public double getMaxScoreDifference() {
+        return maxScoreDifferenceHalfPoints.get() / 2d;
+    }
+
+    @Override
+    public double getMeanColorImbalance() {
+        long pairsCount = pairs.sum();
+        return pairsCount == 0 ? 0 : colorImbalance.sum() / 2d / pairsCount;
+    }
+
+    @Override
+    public long getMaxColorImbalance() {
+        return maxColorImbalance.get();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            latencyHistogram.set(i, 0);
+        }
+        for (LongAdder adder : new LongAdder[]{roundsPaired, roundsNotPossible, latencyNanos, candidates, rematchRejections,
+                colorRejections, fixAttempts, failedFixes, prunedFixes, augmentingSearches, graphBuildNanos, allocatedBytes, pairs, floaters,
+                scoreDifferenceHalfPoints, colorImbalance}) {
+            adder.reset();
+        }
+        maxLatencyNanos.set(0);
+        lastLatencyNanos.set(0);
+        maxScoreDifferenceHalfPoints.set(0);
+        maxColorImbalance.set(0);
+    }
+
+    /**
+     * Method writes all metrics to file as JSON object.
+     */
+    @Override
+    public void dump(String path) {
+        try {
+            Files.write(Paths.get(path), toJson().toString(2).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing pairing metrics to " + path, e);
+        }
+    }
+
+    public JSONObject toJson() {
+        return new JSONObject()
+                .put("roundsPaired", getRoundsPaired())
+                .put("roundsNotPossible", getRoundsNotPossible())
+                .put("meanLatencyMillis", getMeanLatencyMillis())
+                .put("maxLatencyMillis", getMaxLatencyMillis())
+                .put("lastLatencyMillis", getLastLatencyMillis())
+                .put("latencyHistogramMicros", new JSONArray(getLatencyHistogram()))
+                .put("candidates", getCandidates())
+                .put("rematchRejections", getRematchRejections())
+                .put("colorRejections", getColorRejections())
+                .put("fixAttempts", getFixAttempts())
+                .put("failedFixes", getFailedFixes())
+                .put("prunedFixes", getPrunedFixes())
+                .put("augmentingSearches", getAugmentingSearches())
+                .put("graphBuildMillis", getGraphBuildMillis())
+                .put("allocatedBytes", getAllocatedBytes())
+                .put("pairs", getPairs())
+                .put("floaters", getFloaters())
+                .put("meanScoreDifference", getMeanScoreDifference())
+                .put("maxScoreDifference", getMaxScoreDifference())
+                .put("meanColorImbalance", getMeanColorImbalance())
+                .put("maxColorImbalance", getMaxColorImbalance());
+    }
+}
@@ -0,0 +1,62 @@
+package com.pwojaczek.metrics;
+
+/**
+ * JMX view of pairing metrics of a tournament.
+ */
+public interface PairingMetricsMBean {
+
+    long getRoundsPaired();
+
+    long getRoundsNotPossible();
+
+    double getMeanLatencyMillis();
+
+    double getMaxLatencyMillis();
+
+    double getLastLatencyMillis();
+
+    /**
+     * Counts of pairings by latency - bucket i counts pairings which took from 2^i to 2^(i+1) microseconds.
+     */
+    long[] getLatencyHistogram();
+
+    long getCandidates();
+
+    long getRematchRejections();
+
+    long getColorRejections();
+
+    long getFixAttempts();
+
+    long getFailedFixes();
+
+    /**
+     * Failed fixes rejected by feasibility checks without augmenting path search.
+     */
+    long getPrunedFixes();
+
+    long getAugmentingSearches();
+
+    double getGraphBuildMillis();
+
+    /**
+     * Bytes allocated by the pairing thread, -1 if JVM can't measure it.
+     */
+    long getAllocatedBytes();
+
+    long getPairs();
+
+    long getFloaters();
+
+    double getMeanScoreDifference();
+
+    double getMaxScoreDifference();
+
+    double getMeanColorImbalance();
+
+    long getMaxColorImbalance();
+
+    void reset();
+
+    void dump(String path);
+}
@@ -0,0 +1,110 @@
+package com.pwojaczek.outcome;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+import com.pwojaczek.random.RandomSource;
+
+import java.util.List;
+
+/**
+ * Model based on Elo expected score E = 1 / (1 + 10^(-d/400)) of white player, where d is difference of ratings.
+ * Draw probability is drawRate * (1 - |2E - 1|), so draws are most common between equal players and expected score
+ * of the game stays E - white wins with probability E minus half of draw probability.
+ * Probabilities are precomputed into lookup tables by rating difference, clamped to MAX_DIFFERENCE, so no game calls Math.pow.
+ * Whole round is sampled at once: table indexes and random numbers are collected into arrays first,
+ * then outcomes are picked by branch-free comparisons in one loop over them. Unrated players have DEFAULT_RATING.
+ */
+public class EloOutcomeModel implements OutcomeModel {
+    public static final int DEFAULT_RATING = 1500;
+    public static final int MAX_DIFFERENCE = 800;
+
+    // Outcomes by count of limits reached by the sample: below win limit, below draw limit, above both.
+    private static final OutcomeEnum[] OUTCOMES = {OutcomeEnum.WIN, OutcomeEnum.DRAW, OutcomeEnum.LOSS};
+
+    private final double[] winLimits = new double[2 * MAX_DIFFERENCE + 1];
+    private final double[] drawLimits = new double[2 * MAX_DIFFERENCE + 1];
+    private int[] indexes = new int[0];
+    private double[] samples = new double[0];
+    private byte[] outcomes = new byte[0];
+
+    public EloOutcomeModel(double drawRate) {
+        if (drawRate < 0 || drawRate > 1) {
+            throw new IllegalArgumentException("Draw rate " + drawRate + " is not between 0 and 1");
+        }
+        for (int difference = -MAX_DIFFERENCE; difference <= MAX_DIFFERENCE; difference++) {
+            double expected = 1 / (1 + Math.pow(10, -difference / 400.0));
+            double draw = drawRate * (1 - Math.abs(2 * expected - 1));
+            winLimits[difference + MAX_DIFFERENCE] = expected - draw / 2;
+            drawLimits[difference + MAX_DIFFERENCE] = expected + draw / 2;
+        }
+    }
+
+    @Override
+    public OutcomeEnum outcome(Player white, Player black, RandomSource random) {
+        int index = index(white, black);
+        double sample = random.nextDouble();
+        return OUTCOMES[(sample >= winLimits[index] ? 1 : 0) + (sample >= drawLimits[index] ? 1 : 0)];
+    }
+
+    /**
+     * Probability that white player wins, draws or loses, by OutcomeEnum WIN, DRAW and LOSS.
+     */
+    public double probability(Player white, Player black, OutcomeEnum outcome) {
+        int index = index(white, black);
+        if (outcome == OutcomeEnum.WIN) {
+            return winLimits[index];
+        } else if (outcome == OutcomeEnum.DRAW) {
+            return drawLimits[index] - winLimits[index];
+        } else if (outcome == OutcomeEnum.LOSS) {
+            return 1 - drawLimits[index];
+        }
+        return 0;
+    }
+
+    /**
+     * Method samples outcomes of the whole round. Random numbers are drawn in order of boards, one for every game,
+     * so outcomes are the same as drawn by outcome() game by game.
+     */
+    @Override
+    public void outcomes(List<Match> matches, RandomSource random) {
+        ensureCapacity(matches.size());
+        int games = 0;
+        for (Match match : matches) {
+            if (match.getOutcome() != OutcomeEnum.FREE_POINT) {
+                indexes[games++] = index(match.getPlayer1(), match.getPlayer2());
+            }
+        }
+        for (int i = 0; i < games; i++) {
+            samples[i] = random.nextDouble();
+        }
+        for (int i = 0; i < games; i++) {
+            int index = indexes[i];
+            double sample = samples[i];
+            outcomes[i] = (byte) ((sample >= winLimits[index] ? 1 : 0) + (sample >= drawLimits[index] ? 1 : 0));
+        }
+        int game = 0;
+        for (Match match : matches) {
+            if (match.getOutcome() != OutcomeEnum.FREE_POINT) {
+                match.setOutcome(OUTCOMES[outcomes[game++]]);
+            }
+        }
+    }
+
+    private static int index(Player white, Player black) {
+        int difference = rating(white) - rating(black);
+        return Math.max(-MAX_DIFFERENCE, Math.min(MAX_DIFFERENCE, difference)) + MAX_DIFFERENCE;
+    }
+
+    private static int rating(Player player) {
+        return player.hasRating() ? player.getRating() : DEFAULT_RATING;
+    }
+
+    private void ensureCapacity(int size) {
+        if (indexes.length < size) {
+            indexes = new int[size];
+            samples = new double[size];
+            outcomes = new byte[size];
+        }
+    }
+}
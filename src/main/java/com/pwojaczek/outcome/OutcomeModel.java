@@ -0,0 +1,31 @@
+package com.pwojaczek.outcome;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+import com.pwojaczek.random.RandomSource;
+
+import java.util.List;
+
+/**
+ * Model of outcomes of games played in AUTOMATIC tournaments.
+ * Model instance may keep buffers between rounds, so it's used by one tournament at a time.
+ */
+public interface OutcomeModel {
+
+    /**
+     * Method draws outcome of a game of white and black player - WIN if white wins, LOSS if black wins, or DRAW.
+     */
+    OutcomeEnum outcome(Player white, Player black, RandomSource random);
+
+    /**
+     * Method sets drawn outcomes to all matches of a round, except free points. Outcomes are drawn in order of boards.
+     */
+    default void outcomes(List<Match> matches, RandomSource random) {
+        for (Match match : matches) {
+            if (match.getOutcome() != OutcomeEnum.FREE_POINT) {
+                match.setOutcome(outcome(match.getPlayer1(), match.getPlayer2(), random));
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.pwojaczek.outcome;
+
+public enum OutcomeModelType {
+    UNIFORM, ELO;
+
+    /**
+     * Creates outcome model of this type. Draw rate is share of draws between equally rated players, ignored by UNIFORM model.
+     */
+    public OutcomeModel create(double drawRate) {
+        if (this == ELO) {
+            return new EloOutcomeModel(drawRate);
+        }
+        return new UniformOutcomeModel();
+    }
+}
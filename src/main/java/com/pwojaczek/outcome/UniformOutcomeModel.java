@@ -0,0 +1,17 @@
+package com.pwojaczek.outcome;
+
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+import com.pwojaczek.random.RandomSource;
+
+/**
+ * Model which ignores players - win, loss and draw are equally likely.
+ */
+public class UniformOutcomeModel implements OutcomeModel {
+    private static final OutcomeEnum[] OUTCOMES = {OutcomeEnum.WIN, OutcomeEnum.LOSS, OutcomeEnum.DRAW};
+
+    @Override
+    public OutcomeEnum outcome(Player white, Player black, RandomSource random) {
+        return OUTCOMES[random.nextInt(OUTCOMES.length)];
+    }
+}
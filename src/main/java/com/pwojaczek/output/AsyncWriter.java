@@ -0,0 +1,148 @@
+package com.pwojaczek.output;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writer which collects written text and passes it to the target writer on a background thread.
+ * Text is handed over on flush() or when enough of it is collected, so the tournament never waits for I/O.
+ * Hand-over queue is bounded - when the target is slower than the tournament, the writing thread waits
+ * until a chunk is written, so at most QUEUED_CHUNKS chunks are held in memory.
+ * Error of background write is thrown from the next call of write, flush or close. Writing to closed writer throws IOException.
+ */
+public class AsyncWriter extends Writer {
+    private static final int HANDOVER_SIZE = 64 * 1024;
+    private static final int QUEUED_CHUNKS = 16;
+    private static final Chunk END = new Chunk(null, false);
+
+    private final Writer target;
+    private final BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+    private final Thread thread;
+    private StringBuilder chunk = new StringBuilder();
+    private volatile IOException failure;
+    private boolean closed;
+
+    public AsyncWriter(Writer target) {
+        this.target = target;
+        this.thread = new Thread(this::writeChunks, "output-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        checkOpen();
+        chunk.append(cbuf, off, len);
+        if (chunk.length() >= HANDOVER_SIZE) {
+            handOver(false);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        checkOpen();
+        chunk.append(str, off, off + len);
+        if (chunk.length() >= HANDOVER_SIZE) {
+            handOver(false);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        handOver(true);
+    }
+
+    /**
+     * Method waits until everything collected is written and closes target writer.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        handOver(true);
+        put(END);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for output to be written");
+        }
+        target.close();
+        checkFailure();
+    }
+
+    private void handOver(boolean flushTarget) throws IOException {
+        if (chunk.length() == 0 && !flushTarget) {
+            return;
+        }
+        Chunk text = new Chunk(chunk, flushTarget);
+        chunk = new StringBuilder();
+        put(text);
+    }
+
+    private void put(Chunk text) throws IOException {
+        try {
+            queue.put(text);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while handing output over");
+        }
+    }
+
+    /**
+     * Loop of background thread, which writes chunks until the writer is closed. After failure chunks are only dropped.
+     */
+    private void writeChunks() {
+        while (true) {
+            Chunk text;
+            try {
+                text = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (text == END) {
+                return;
+            }
+            if (failure != null) {
+                continue;
+            }
+            try {
+                target.append(text.text);
+                if (text.flushTarget) {
+                    target.flush();
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer is closed");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Background write failed", failure);
+        }
+    }
+
+    private static final class Chunk {
+        private final StringBuilder text;
+        private final boolean flushTarget;
+
+        private Chunk(StringBuilder text, boolean flushTarget) {
+            this.text = text;
+            this.flushTarget = flushTarget;
+        }
+    }
+}
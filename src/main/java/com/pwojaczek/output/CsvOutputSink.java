@@ -0,0 +1,86 @@
+package com.pwojaczek.output;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Machine readable sink writing one CSV record per line. First column tells type of the record:
+ * pairing,round,board,white,white score,black,black score,outcome
+ * unpaired,round,player,score
+ * result,rank,player,score
+ * Free point is a pairing record without black player.
+ */
+public class CsvOutputSink extends WriterOutputSink {
+
+    public CsvOutputSink(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    public void pairing(int pairingNumber, List<Match> matches) {
+        for (int i = 0; i < matches.size(); i++) {
+            Match match = matches.get(i);
+            Player player2 = match.getPlayer2();
+            buffer.append("pairing,").append(pairingNumber).append(',').append(i + 1).append(',');
+            appendPlayer(match.getPlayer1());
+            buffer.append(',');
+            if (player2 != null) {
+                appendPlayer(player2);
+            } else {
+                buffer.append(',');
+            }
+            buffer.append(',');
+            OutcomeEnum outcome = match.getOutcome();
+            if (outcome != null) {
+                buffer.append(outcome.name());
+            }
+            buffer.append('\n');
+        }
+        writeBuffer();
+    }
+
+    @Override
+    public void pairingNotPossible(int pairingNumber, List<Player> unpairedPlayers) {
+        for (Player player : unpairedPlayers) {
+            buffer.append("unpaired,").append(pairingNumber).append(',');
+            appendPlayer(player);
+            buffer.append('\n');
+        }
+        writeBuffer();
+    }
+
+    @Override
+    public void results(List<Player> players) {
+        for (int i = 0; i < players.size(); i++) {
+            buffer.append("result,").append(i + 1).append(',');
+            appendPlayer(players.get(i));
+            buffer.append('\n');
+        }
+        writeBuffer();
+    }
+
+    private void appendPlayer(Player player) {
+        appendField(player.getName());
+        buffer.append(',').append(player.getScore());
+    }
+
+    private void appendField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            buffer.append(value);
+            return;
+        }
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append('"');
+            }
+            buffer.append(c);
+        }
+        buffer.append('"');
+    }
+}
@@ -0,0 +1,60 @@
+package com.pwojaczek.output;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+import org.json.JSONObject;
+
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Machine readable sink writing one JSON object per line, with type field "pairing", "unpaired" or "result".
+ * Free point is a pairing without black player.
+ */
+public class JsonLinesOutputSink extends WriterOutputSink {
+
+    public JsonLinesOutputSink(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    public void pairing(int pairingNumber, List<Match> matches) {
+        for (int i = 0; i < matches.size(); i++) {
+            Match match = matches.get(i);
+            buffer.append("{\"type\":\"pairing\",\"round\":").append(pairingNumber).append(",\"board\":").append(i + 1);
+            appendPlayer("white", match.getPlayer1());
+            if (match.getPlayer2() != null) {
+                appendPlayer("black", match.getPlayer2());
+            }
+            OutcomeEnum outcome = match.getOutcome();
+            buffer.append(",\"outcome\":").append(outcome == null ? "null" : JSONObject.quote(outcome.name())).append("}\n");
+        }
+        writeBuffer();
+    }
+
+    @Override
+    public void pairingNotPossible(int pairingNumber, List<Player> unpairedPlayers) {
+        for (Player player : unpairedPlayers) {
+            buffer.append("{\"type\":\"unpaired\",\"round\":").append(pairingNumber);
+            appendPlayer("player", player);
+            buffer.append("}\n");
+        }
+        writeBuffer();
+    }
+
+    @Override
+    public void results(List<Player> players) {
+        for (int i = 0; i < players.size(); i++) {
+            buffer.append("{\"type\":\"result\",\"rank\":").append(i + 1);
+            appendPlayer("player", players.get(i));
+            buffer.append("}\n");
+        }
+        writeBuffer();
+    }
+
+    private void appendPlayer(String field, Player player) {
+        buffer.append(",\"").append(field).append("\":").append(JSONObject.quote(player.getName()))
+                .append(",\"").append(field).append("Score\":").append(player.getScore());
+    }
+}
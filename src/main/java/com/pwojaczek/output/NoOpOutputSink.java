@@ -0,0 +1,32 @@
+package com.pwojaczek.output;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+
+import java.util.List;
+
+/**
+ * Sink which discards everything, used by simulations.
+ */
+public class NoOpOutputSink implements OutputSink {
+
+    @Override
+    public void pairing(int pairingNumber, List<Match> matches) {
+    }
+
+    @Override
+    public void pairingNotPossible(int pairingNumber, List<Player> unpairedPlayers) {
+    }
+
+    @Override
+    public void results(List<Player> players) {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
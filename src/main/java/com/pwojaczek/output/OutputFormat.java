@@ -0,0 +1,20 @@
+package com.pwojaczek.output;
+
+import java.io.Writer;
+
+public enum OutputFormat {
+    TEXT, CSV, JSON_LINES, NONE;
+
+    public OutputSink create(Writer writer) {
+        switch (this) {
+            case CSV:
+                return new CsvOutputSink(writer);
+            case JSON_LINES:
+                return new JsonLinesOutputSink(writer);
+            case NONE:
+                return new NoOpOutputSink();
+            default:
+                return new TextOutputSink(writer);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.pwojaczek.output;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+
+import java.util.List;
+
+/**
+ * Destination of published pairings and results of a tournament.
+ * Sink may buffer output - everything written is guaranteed to be out only after flush() or close().
+ */
+public interface OutputSink extends AutoCloseable {
+
+    /**
+     * Method writes matches of a pairing round, with outcomes if they are already known.
+     */
+    void pairing(int pairingNumber, List<Match> matches);
+
+    /**
+     * Method writes players who could not be paired in the round.
+     */
+    void pairingNotPossible(int pairingNumber, List<Player> unpairedPlayers);
+
+    /**
+     * Method writes final results. Players are sorted from the highest score.
+     */
+    void results(List<Player> players);
+
+    void flush();
+
+    @Override
+    void close();
+}
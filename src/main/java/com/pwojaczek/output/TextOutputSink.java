@@ -0,0 +1,64 @@
+package com.pwojaczek.output;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+
+import java.io.Writer;
+import java.util.Formatter;
+import java.util.List;
+
+/**
+ * Sink printing fancy tables for people, in the same format as console output of the tournament.
+ * Every round is flushed to the writer at once.
+ */
+public class TextOutputSink extends WriterOutputSink {
+
+    private final Formatter formatter = new Formatter(buffer);
+
+    public TextOutputSink(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    public void pairing(int pairingNumber, List<Match> matches) {
+        buffer.append("############################ PAIRING ").append(pairingNumber).append(" #############################\n");
+        for (Match match : matches) {
+            if (match.getOutcome() == OutcomeEnum.FREE_POINT) {
+                buffer.append("Free point: ").append(playerWithScore(match.getPlayer1())).append('\n');
+            } else {
+                OutcomeEnum outcomeEnum = match.getOutcome();
+                String outcome = outcomeEnum != null ? outcomeEnum.getOutcome() : " - ";
+                formatter.format("%-28s%8s%30s", playerWithScore(match.getPlayer1()), outcome, playerWithScore(match.getPlayer2()) + "\n");
+            }
+        }
+        buffer.append("####################################################################\n\n");
+        writeBuffer();
+        flush();
+    }
+
+    @Override
+    public void pairingNotPossible(int pairingNumber, List<Player> unpairedPlayers) {
+        buffer.append("Pairing ").append(pairingNumber).append(" is not possible without rematches or illegal colors. Unpaired players:\n");
+        for (Player player : unpairedPlayers) {
+            buffer.append(playerWithScore(player)).append('\n');
+        }
+        writeBuffer();
+        flush();
+    }
+
+    @Override
+    public void results(List<Player> players) {
+        buffer.append("#################### RESULTS ####################\n");
+        for (Player player : players) {
+            formatter.format("%-32s\t\t%.1f\n", player.getName(), player.getScore());
+        }
+        buffer.append("#################################################\n");
+        writeBuffer();
+        flush();
+    }
+
+    private String playerWithScore(Player player) {
+        return player.getName() + "(" + player.getScore() + ")";
+    }
+}
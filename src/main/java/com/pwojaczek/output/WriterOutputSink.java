@@ -0,0 +1,49 @@
+package com.pwojaczek.output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Base of sinks writing text. Whole pairing round or results table is built in one buffer
+ * and passed to the writer with a single write, instead of formatting and writing line by line.
+ */
+abstract class WriterOutputSink implements OutputSink {
+
+    protected final StringBuilder buffer = new StringBuilder(8192);
+    private final Writer writer;
+
+    WriterOutputSink(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Method writes buffer content to the writer and clears the buffer.
+     */
+    protected void writeBuffer() {
+        try {
+            writer.append(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing output", e);
+        }
+        buffer.setLength(0);
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing output", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while closing output", e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+import com.pwojaczek.random.RandomSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pairing system with Baku acceleration for fields much bigger than count of rounds.
+ * Group A are the first half of seeds, rounded up to even count. Players of group A get virtual points in the first half
+ * of rounds (rounded up) - one point in the first half of accelerated rounds, half a point in the rest of them.
+ * Virtual points change only order of players given to pairing engine, so top seeds meet each other earlier
+ * and the field is sorted out in fewer rounds. Standings use real scores only.
+ * The first round is seeded separately in both groups, top half against bottom half.
+ * Players are ordered by counting sort over score buckets, in linear time.
+ */
+public class BakuPairingSystem implements PairingSystem {
+
+    private final int groupASize;
+    private final int acceleratedRounds;
+    private final int fullPointRounds;
+    private final ColorAllocator colorAllocator;
+
+    public BakuPairingSystem(int rounds, int fieldSize, ColorAllocator colorAllocator) {
+        int half = (fieldSize + 1) / 2;
+        this.groupASize = half + half % 2;
+        this.acceleratedRounds = (rounds + 1) / 2;
+        this.fullPointRounds = (acceleratedRounds + 1) / 2;
+        this.colorAllocator = colorAllocator;
+    }
+
+    public boolean isInGroupA(Player player) {
+        return player.getId() < groupASize;
+    }
+
+    /**
+     * Virtual points of group A players in given round, as count of half points.
+     */
+    public int virtualHalfPoints(int round) {
+        if (round <= fullPointRounds) {
+            return 2;
+        }
+        return round <= acceleratedRounds ? 1 : 0;
+    }
+
+    @Override
+    public boolean freePointToLowestSeed() {
+        return true;
+    }
+
+    @Override
+    public PairingResult pair(int round, List<Player> players, PairingEngine engine, RandomSource random) {
+        if (round == 1) {
+            return pairFirstRound(players);
+        }
+        int virtualHalfPoints = virtualHalfPoints(round);
+        return engine.pair(virtualHalfPoints == 0 ? players : accelerate(players, virtualHalfPoints));
+    }
+
+    /**
+     * Method seeds group A and group B separately. Group A has even count of players and free point of odd field
+     * goes to the lowest seed, who is in group B, so both groups are even.
+     */
+    private PairingResult pairFirstRound(List<Player> players) {
+        List<Player> groupA = new ArrayList<>();
+        List<Player> groupB = new ArrayList<>();
+        for (Player player : players) {
+            (isInGroupA(player) ? groupA : groupB).add(player);
+        }
+        if (groupA.size() % 2 == 1 || groupB.size() % 2 == 1) {
+            throw new IllegalStateException("Groups of the first round must be even, group A has " + groupA.size()
+                    + " players and group B " + groupB.size());
+        }
+        List<Match> matches = new ArrayList<>(players.size() / 2);
+        SeededPairingSystem.pairHalves(groupA, matches, colorAllocator);
+        SeededPairingSystem.pairHalves(groupB, matches, colorAllocator);
+        return new PairingResult(matches);
+    }
+
+    /**
+     * Method orders players by score with virtual points of group A, keeping order of players with equal score.
+     */
+    List<Player> accelerate(List<Player> players, int virtualHalfPoints) {
+        int[] keys = new int[players.size()];
+        int maxKey = 0;
+        for (int i = 0; i < keys.length; i++) {
+            Player player = players.get(i);
+            keys[i] = Math.round(player.getScore() * 2) + (isInGroupA(player) ? virtualHalfPoints : 0);
+            maxKey = Math.max(maxKey, keys[i]);
+        }
+        // Buckets from the highest key get consecutive ranges of the result.
+        int[] starts = new int[maxKey + 2];
+        for (int key : keys) {
+            starts[maxKey - key + 1]++;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        Player[] ordered = new Player[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            ordered[starts[maxKey - keys[i]]++] = players.get(i);
+        }
+        return Arrays.asList(ordered);
+    }
+}
@@ -0,0 +1,307 @@
+package com.pwojaczek.pairing;
+
+import java.util.Arrays;
+
+/**
+ * Maximum cardinality matching on a compatibility graph (Edmonds' blossom algorithm).
+ * Only vertices marked as active take part in the matching, so vertices can be fixed one by one
+ * while the rest of the matching is repaired with augmenting paths.
+ * Fixes are checked from the cheapest test: count of active players needing the same color is kept up to date,
+ * short augmenting paths are looked for directly and vertices left without active neighbour are looked for
+ * before the full blossom search, which is needed only by a few fixes of the round.
+ */
+class BlossomMatcher {
+
+    private static final int UNMATCHED = -1;
+
+    private final CompatibilityGraph graph;
+    private final int size;
+    private final long[] active;
+    private final int[] match;
+    private final int[] parent;
+    private final int[] base;
+    private final int[] queue;
+    private final boolean[] used;
+    private final boolean[] blossom;
+    private final boolean[] lcaUsed;
+    private final int[] requiredColorCount = new int[3];
+    private int activeCount;
+    private long fixAttempts;
+    private long failedFixes;
+    private long prunedFixes;
+    private long augmentingSearches;
+
+    BlossomMatcher(CompatibilityGraph graph) {
+        this.graph = graph;
+        this.size = graph.size();
+        this.active = new long[graph.words()];
+        this.match = new int[size];
+        this.parent = new int[size];
+        this.base = new int[size];
+        this.queue = new int[size];
+        this.used = new boolean[size];
+        this.blossom = new boolean[size];
+        this.lcaUsed = new boolean[size];
+        Arrays.fill(match, UNMATCHED);
+        for (int i = 0; i < size; i++) {
+            activate(i);
+        }
+    }
+
+    /**
+     * Method builds maximum matching of active vertices.
+     * Vertices are first matched greedily in index order, then every free vertex is used as root of augmenting path search.
+     * Returns count of vertices which stayed unmatched.
+     */
+    int maximumMatching() {
+        for (int vertex = 0; vertex < size; vertex++) {
+            if (isActive(vertex) && match[vertex] == UNMATCHED) {
+                for (int neighbour = graph.nextNeighbour(vertex, active, vertex + 1); neighbour != -1; neighbour = graph.nextNeighbour(vertex, active, neighbour + 1)) {
+                    if (match[neighbour] == UNMATCHED) {
+                        match[vertex] = neighbour;
+                        match[neighbour] = vertex;
+                        break;
+                    }
+                }
+            }
+        }
+        int unmatched = 0;
+        for (int vertex = 0; vertex < size; vertex++) {
+            if (isActive(vertex) && match[vertex] == UNMATCHED) {
+                int end = findAugmentingPath(vertex);
+                if (end == -1) {
+                    unmatched++;
+                } else {
+                    augment(end);
+                }
+            }
+        }
+        return unmatched;
+    }
+
+    int mate(int vertex) {
+        return match[vertex];
+    }
+
+    boolean isActive(int vertex) {
+        return (active[vertex >>> 6] & (1L << vertex)) != 0;
+    }
+
+    void activate(int vertex) {
+        active[vertex >>> 6] |= 1L << vertex;
+        requiredColorCount[graph.requiredColor(vertex)]++;
+        activeCount++;
+    }
+
+    void deactivate(int vertex) {
+        active[vertex >>> 6] &= ~(1L << vertex);
+        requiredColorCount[graph.requiredColor(vertex)]--;
+        activeCount--;
+    }
+
+    /**
+     * Method checks Hall condition of players needing the same color: they can't be paired with each other,
+     * so perfect matching of active vertices needs at least as many other active vertices.
+     */
+    private boolean colorsCanBePaired() {
+        return requiredColorCount[1] * 2 <= activeCount && requiredColorCount[2] * 2 <= activeCount;
+    }
+
+    /**
+     * Method checks if some active neighbour of deactivated vertex was left without any active neighbour.
+     * Only neighbours of deactivated vertices can become isolated, when the rest of active vertices had perfect matching.
+     */
+    private boolean leavesIsolatedVertex(int vertex) {
+        for (int neighbour = graph.nextNeighbour(vertex, active, 0); neighbour != -1; neighbour = graph.nextNeighbour(vertex, active, neighbour + 1)) {
+            if (graph.degree(neighbour, active) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long[] activeMask() {
+        return active;
+    }
+
+    long fixAttempts() {
+        return fixAttempts;
+    }
+
+    long failedFixes() {
+        return failedFixes;
+    }
+
+    long prunedFixes() {
+        return prunedFixes;
+    }
+
+    long augmentingSearches() {
+        return augmentingSearches;
+    }
+
+    /**
+     * Method tries to fix pair of vertex1 and vertex2 in current perfect matching of active vertices.
+     * Both vertices get deactivated and their previous mates are re-matched through augmenting path.
+     * If it is not possible, matching is reverted and false is returned.
+     */
+    boolean tryFix(int vertex1, int vertex2) {
+        fixAttempts++;
+        deactivate(vertex1);
+        deactivate(vertex2);
+        if (match[vertex1] == vertex2) {
+            return true;
+        }
+        int mate1 = match[vertex1];
+        int mate2 = match[vertex2];
+        if (!colorsCanBePaired()) {
+            prunedFixes++;
+            return revertFix(vertex1, mate1, vertex2, mate2);
+        }
+        match[vertex1] = vertex2;
+        match[vertex2] = vertex1;
+        match[mate1] = UNMATCHED;
+        match[mate2] = UNMATCHED;
+        if (rematchDirectly(mate1, mate2)) {
+            return true;
+        }
+        if (leavesIsolatedVertex(vertex1) || leavesIsolatedVertex(vertex2)) {
+            prunedFixes++;
+            return revertFix(vertex1, mate1, vertex2, mate2);
+        }
+        int end = findAugmentingPath(mate1);
+        if (end != -1) {
+            augment(end);
+            return true;
+        }
+        return revertFix(vertex1, mate1, vertex2, mate2);
+    }
+
+    private boolean revertFix(int vertex1, int mate1, int vertex2, int mate2) {
+        match[vertex1] = mate1;
+        match[mate1] = vertex1;
+        match[vertex2] = mate2;
+        match[mate2] = vertex2;
+        activate(vertex1);
+        activate(vertex2);
+        failedFixes++;
+        return false;
+    }
+
+    private void augment(int end) {
+        int vertex = end;
+        while (vertex != UNMATCHED) {
+            int previous = parent[vertex];
+            int next = match[previous];
+            match[vertex] = previous;
+            match[previous] = vertex;
+            vertex = next;
+        }
+    }
+
+    /**
+     * Method looks for augmenting path between the only two free vertices with at most three edges:
+     * free vertices connected with each other, or free vertex1 connected with matched vertex whose mate is connected with vertex2.
+     * Such short paths are found for most fixes in one scan of vertex1 neighbours, without blossom search.
+     */
+    private boolean rematchDirectly(int vertex1, int vertex2) {
+        if (graph.isConnected(vertex1, vertex2)) {
+            match[vertex1] = vertex2;
+            match[vertex2] = vertex1;
+            return true;
+        }
+        for (int neighbour = graph.nextNeighbour(vertex1, active, 0); neighbour != -1; neighbour = graph.nextNeighbour(vertex1, active, neighbour + 1)) {
+            int neighbourMate = match[neighbour];
+            if (graph.isConnected(neighbourMate, vertex2)) {
+                match[vertex1] = neighbour;
+                match[neighbour] = vertex1;
+                match[neighbourMate] = vertex2;
+                match[vertex2] = neighbourMate;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Breadth-first search of augmenting path starting in free vertex root.
+     * Returns free vertex at the end of found path or -1, if there is no augmenting path.
+     */
+    private int findAugmentingPath(int root) {
+        augmentingSearches++;
+        Arrays.fill(used, false);
+        Arrays.fill(parent, -1);
+        for (int i = 0; i < size; i++) {
+            base[i] = i;
+        }
+        used[root] = true;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        while (head < tail) {
+            int vertex = queue[head++];
+            for (int to = graph.nextNeighbour(vertex, active, 0); to != -1; to = graph.nextNeighbour(vertex, active, to + 1)) {
+                if (base[vertex] == base[to] || match[vertex] == to) {
+                    continue;
+                }
+                if (to == root || match[to] != UNMATCHED && parent[match[to]] != -1) {
+                    int currentBase = lowestCommonAncestor(vertex, to);
+                    Arrays.fill(blossom, false);
+                    markPath(vertex, currentBase, to);
+                    markPath(to, currentBase, vertex);
+                    for (int i = 0; i < size; i++) {
+                        if (blossom[base[i]]) {
+                            base[i] = currentBase;
+                            if (!used[i]) {
+                                used[i] = true;
+                                queue[tail++] = i;
+                            }
+                        }
+                    }
+                } else if (parent[to] == -1) {
+                    parent[to] = vertex;
+                    if (match[to] == UNMATCHED) {
+                        return to;
+                    }
+                    int next = match[to];
+                    used[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int lowestCommonAncestor(int vertex1, int vertex2) {
+        Arrays.fill(lcaUsed, false);
+        int a = vertex1;
+        while (true) {
+            a = base[a];
+            lcaUsed[a] = true;
+            if (match[a] == UNMATCHED) {
+                break;
+            }
+            a = parent[match[a]];
+        }
+        int b = vertex2;
+        while (true) {
+            b = base[b];
+            if (lcaUsed[b]) {
+                return b;
+            }
+            b = parent[match[b]];
+        }
+    }
+
+    private void markPath(int vertex, int blossomBase, int child) {
+        int current = vertex;
+        int currentChild = child;
+        while (base[current] != blossomBase) {
+            blossom[base[current]] = true;
+            blossom[base[match[current]]] = true;
+            parent[current] = currentChild;
+            currentChild = match[current];
+            current = parent[match[current]];
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+
+public class ColorAllocator {
+    /**
+     * Create Match based on color Setup.
+     * Create match with player1 as white, if colorSetup is 1.
+     * Create match with player2 as white, if colorSetup is 2.
+     * If colorSetup is 0, check playerScores -  player with highest score gets white color.
+     * If both have the same amount of points, white goes for player1.
+     */
+    public Match createMatchBasedOnSetup(Player player1, Player player2, int colorSetup) {
+        if (colorSetup == 1) {
+            return new Match(player1, player2);
+        } else if (colorSetup == 2) {
+            return new Match(player2, player1);
+        } else {
+            if (player1.getScore() < player2.getScore()) {
+                return createMatchBasedOnSetup(player1, player2, 2);
+            } else {
+                return createMatchBasedOnSetup(player1, player2, 1);
+            }
+        }
+    }
+
+    /**
+     * Get color which player has to get in the next game, because of colors of the last two games.
+     * Two players with the same required color can never be paired with each other.
+     * Return 1, if player must play white
+     * Return 2, if player must play black
+     * Return 0, if player can play both colors
+     */
+    public int getRequiredColor(Player player) {
+        int whiteCount = Integer.bitCount(player.getLastColors());
+        if (whiteCount == 2) {
+            return 2;
+        } else if (whiteCount == 0 && player.getGamesPlayed() > 1) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Check if players can get proper colors and get best matching color setup.
+     * Return -1, if there can't be proper color assigned
+     * Return 1, if player1 should play white
+     * Return 2, if player2 should play black
+     * Return 0, if color doesn't matter
+     */
+    public int getPlayersColorMatchup(Player player1, Player player2) {
+        boolean player1MustPlayBlack = false;
+        boolean player2MustPlayBlack = false;
+        boolean player1MustPlayWhite = false;
+        boolean player2MustPlayWhite = false;
+
+        int matchesPlayedSizePlayer1 = player1.getGamesPlayed();
+        // Player keeps colors of the last two games as bitmask, so count of whites in them is count of set bits.
+        int player1WhiteCount = Integer.bitCount(player1.getLastColors());
+        int player2WhiteCount = Integer.bitCount(player2.getLastColors());
+
+        // Players can't play the same color three times in a row.
+        if (player1WhiteCount == 2) {
+            player1MustPlayBlack = true;
+        } else if (player1WhiteCount == 0 && matchesPlayedSizePlayer1 > 1) {
+            player1MustPlayWhite = true;
+        }
+        if (player2WhiteCount == 2) {
+            player2MustPlayBlack = true;
+        } else if (player2WhiteCount == 0 && matchesPlayedSizePlayer1 > 1) {
+            player2MustPlayWhite = true;
+        }
+
+        if (player2MustPlayBlack && player1MustPlayBlack || player2MustPlayWhite && player1MustPlayWhite) {
+            return -1;
+        }
+        if (player1MustPlayBlack || player2MustPlayWhite) {
+            return 2;
+        }
+        if (player1MustPlayWhite || player2MustPlayBlack) {
+            return 1;
+        }
+
+        // if they didn't play 2 colors in a row, check which color was played more times.
+        player1WhiteCount = player1.getWhiteCount();
+        player2WhiteCount = player2.getWhiteCount();
+
+        boolean player1ShouldPlayBlack = false;
+        boolean player2ShouldPlayBlack = false;
+        boolean player1ShouldPlayWhite = false;
+        boolean player2ShouldPlayWhite = false;
+
+        if (player1WhiteCount * 2 > matchesPlayedSizePlayer1) {
+            player1ShouldPlayBlack = true;
+        } else if (player1WhiteCount * 2 < matchesPlayedSizePlayer1) {
+            player1ShouldPlayWhite = true;
+        }
+        if (player2WhiteCount * 2 > matchesPlayedSizePlayer1) {
+            player2ShouldPlayBlack = true;
+        } else if (player2WhiteCount * 2 < matchesPlayedSizePlayer1) {
+            player2ShouldPlayWhite = true;
+        }
+
+        if (player1ShouldPlayBlack && player2ShouldPlayWhite) {
+            return 2;
+        } else if (player1ShouldPlayWhite && player2ShouldPlayBlack) {
+            return 1;
+        } else if (player1ShouldPlayBlack || player2ShouldPlayWhite) {
+            return 2;
+        } else if (player1ShouldPlayWhite || player2ShouldPlayBlack) {
+            return 1;
+        } else {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Player;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Graph of players that can be paired with each other in the current round.
+ * Vertices are indexes of players in the ordered list, edges connect players who did not play each other yet
+ * and can get proper colors. Adjacency is kept as one bitset row per player.
+ * Rows can be built in parallel - every task fills only rows of its own range, so the graph is equal to the one
+ * built sequentially.
+ */
+class CompatibilityGraph {
+
+    private final int size;
+    private final int words;
+    private final long[] adjacency;
+    private final byte[] requiredColors;
+    private long candidates;
+    private long rematchRejections;
+    private long colorRejections;
+
+    CompatibilityGraph(List<Player> players, ColorAllocator colorAllocator) {
+        this.size = players.size();
+        this.words = wordsFor(size);
+        this.adjacency = new long[size * words];
+        this.requiredColors = new byte[size];
+        for (int i = 0; i < size; i++) {
+            Player player1 = players.get(i);
+            requiredColors[i] = (byte) colorAllocator.getRequiredColor(player1);
+            for (int j = i + 1; j < size; j++) {
+                Player player2 = players.get(j);
+                candidates++;
+                if (player1.playedWith(player2)) {
+                    rematchRejections++;
+                } else if (colorAllocator.getPlayersColorMatchup(player1, player2) == -1) {
+                    colorRejections++;
+                } else {
+                    connect(i, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Graph built on fork-join pool, rows split by given bounds. Bounds are indexes of the first row of every range
+     * and the size of the graph, in increasing order. Every pair of players is checked in the same order as
+     * in sequential build, with the higher placed player first.
+     */
+    CompatibilityGraph(List<Player> players, ColorAllocator colorAllocator, ForkJoinPool pool, int[] bounds) {
+        this.size = players.size();
+        this.words = wordsFor(size);
+        this.adjacency = new long[size * words];
+        this.requiredColors = new byte[size];
+        long[][] counters = new long[bounds.length - 1][];
+        pool.invoke(new RowsTask(players, colorAllocator, bounds, counters, 0, bounds.length - 1));
+        for (long[] rangeCounters : counters) {
+            candidates += rangeCounters[0];
+            rematchRejections += rangeCounters[1];
+            colorRejections += rangeCounters[2];
+        }
+    }
+
+    /**
+     * Method fills rows from inclusive to exclusive and returns counters of candidates, rematch rejections and color rejections
+     * of pairs whose higher placed player is in the rows.
+     */
+    private long[] fillRows(List<Player> players, ColorAllocator colorAllocator, int from, int to) {
+        long[] counters = new long[3];
+        for (int i = from; i < to; i++) {
+            Player player = players.get(i);
+            requiredColors[i] = (byte) colorAllocator.getRequiredColor(player);
+            int row = i * words;
+            for (int j = 0; j < size; j++) {
+                if (j == i) {
+                    continue;
+                }
+                Player player1 = players.get(Math.min(i, j));
+                Player player2 = players.get(Math.max(i, j));
+                if (j > i) {
+                    counters[0]++;
+                }
+                if (player1.playedWith(player2)) {
+                    if (j > i) {
+                        counters[1]++;
+                    }
+                } else if (colorAllocator.getPlayersColorMatchup(player1, player2) == -1) {
+                    if (j > i) {
+                        counters[2]++;
+                    }
+                } else {
+                    adjacency[row + (j >>> 6)] |= 1L << j;
+                }
+            }
+        }
+        return counters;
+    }
+
+    static int wordsFor(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int words() {
+        return words;
+    }
+
+    long candidates() {
+        return candidates;
+    }
+
+    long rematchRejections() {
+        return rematchRejections;
+    }
+
+    long colorRejections() {
+        return colorRejections;
+    }
+
+    /**
+     * Returns color which player of vertex has to get: 1 for white, 2 for black, 0 if any color is fine.
+     * Vertices with the same required color are never connected.
+     */
+    int requiredColor(int vertex) {
+        return requiredColors[vertex];
+    }
+
+    /**
+     * Returns count of neighbours of vertex, which are set in mask.
+     */
+    int degree(int vertex, long[] mask) {
+        int row = vertex * words;
+        int degree = 0;
+        for (int i = 0; i < words; i++) {
+            degree += Long.bitCount(adjacency[row + i] & mask[i]);
+        }
+        return degree;
+    }
+
+    boolean isConnected(int vertex1, int vertex2) {
+        return (adjacency[vertex1 * words + (vertex2 >>> 6)] & (1L << vertex2)) != 0;
+    }
+
+    /**
+     * Returns first neighbour of vertex with index not lower than from, which is also set in mask.
+     * Returns -1, if there is no such neighbour.
+     */
+    int nextNeighbour(int vertex, long[] mask, int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int row = vertex * words;
+        int wordIndex = from >>> 6;
+        long word = adjacency[row + wordIndex] & mask[wordIndex] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words) {
+                return -1;
+            }
+            word = adjacency[row + wordIndex] & mask[wordIndex];
+        }
+    }
+
+    private void connect(int vertex1, int vertex2) {
+        adjacency[vertex1 * words + (vertex2 >>> 6)] |= 1L << vertex2;
+        adjacency[vertex2 * words + (vertex1 >>> 6)] |= 1L << vertex1;
+    }
+
+    private class RowsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Player> players;
+        private final ColorAllocator colorAllocator;
+        private final int[] bounds;
+        private final long[][] counters;
+        private final int from;
+        private final int to;
+
+        RowsTask(List<Player> players, ColorAllocator colorAllocator, int[] bounds, long[][] counters, int from, int to) {
+            this.players = players;
+            this.colorAllocator = colorAllocator;
+            this.bounds = bounds;
+            this.counters = counters;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                counters[from] = fillRows(players, colorAllocator, bounds[from], bounds[to]);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowsTask(players, colorAllocator, bounds, counters, from, middle),
+                    new RowsTask(players, colorAllocator, bounds, counters, middle, to));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+import com.pwojaczek.random.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Default pairing system - the first round is paired randomly, next rounds are paired top-down by score with pairing engine.
+ */
+public class DutchPairingSystem implements PairingSystem {
+
+    private final ColorAllocator colorAllocator;
+
+    public DutchPairingSystem(ColorAllocator colorAllocator) {
+        this.colorAllocator = colorAllocator;
+    }
+
+    @Override
+    public PairingResult pair(int round, List<Player> players, PairingEngine engine, RandomSource random) {
+        if (round == 1) {
+            return new PairingResult(pairRandomly(players, random));
+        }
+        return engine.pair(players);
+    }
+
+    /**
+     * Method pairs every player, from the first one, with random opponent from the remaining players.
+     * Remaining players are counted in Fenwick tree, so random opponent is found in O(log n) instead of removing
+     * players from the middle of a list.
+     */
+    public List<Match> pairRandomly(List<Player> players, RandomSource random) {
+        int size = players.size();
+        int[] tree = new int[size + 1];
+        for (int i = 1; i <= size; i++) {
+            tree[i]++;
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+        boolean[] paired = new boolean[size];
+        List<Match> matches = new ArrayList<>(size / 2);
+        int first = 0;
+        for (int remaining = size; remaining > 1; remaining -= 2) {
+            while (paired[first]) {
+                first++;
+            }
+            remove(tree, paired, first);
+            int second = findRemaining(tree, random.nextInt(remaining - 1));
+            remove(tree, paired, second);
+            Player player1 = players.get(first);
+            Player player2 = players.get(second);
+            matches.add(colorAllocator.createMatchBasedOnSetup(player1, player2, colorAllocator.getPlayersColorMatchup(player1, player2)));
+        }
+        return matches;
+    }
+
+    private static void remove(int[] tree, boolean[] paired, int index) {
+        paired[index] = true;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i]--;
+        }
+    }
+
+    /**
+     * Returns index of the k-th remaining player, counted from 0.
+     */
+    private static int findRemaining(int[] tree, int k) {
+        int position = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            if (position + step < tree.length && tree[position + step] <= k) {
+                position += step;
+                k -= tree[position];
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,82 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pairing engine based on matching in compatibility graph of the round.
+ * Round is paired as lexicographic maximum weight matching: edge weights prefer the highest placed player
+ * getting the closest opponent in score order, so players are fixed from the top and each candidate is accepted
+ * only if the rest of the round can still be fully paired. Feasibility of the rest is kept by perfect matching
+ * of remaining players, which is repaired with a single augmenting path search instead of brute force.
+ */
+public class MatchingPairingEngine implements PairingEngine {
+
+    private final ColorAllocator colorAllocator;
+
+    public MatchingPairingEngine() {
+        this(new ColorAllocator());
+    }
+
+    public MatchingPairingEngine(ColorAllocator colorAllocator) {
+        this.colorAllocator = colorAllocator;
+    }
+
+    @Override
+    public PairingResult pair(List<Player> players) {
+        long buildStart = System.nanoTime();
+        CompatibilityGraph graph = new CompatibilityGraph(players, colorAllocator);
+        return pair(players, graph, System.nanoTime() - buildStart);
+    }
+
+    /**
+     * Method pairs players with compatibility graph built for them, which took given time.
+     */
+    PairingResult pair(List<Player> players, CompatibilityGraph graph, long buildNanos) {
+        PairingStatistics statistics = new PairingStatistics();
+        statistics.addGraph(graph, buildNanos);
+        BlossomMatcher matcher = new BlossomMatcher(graph);
+        List<Match> matches = new ArrayList<>();
+
+        if (matcher.maximumMatching() > 0) {
+            List<Player> unpairedPlayers = new ArrayList<>();
+            for (int i = 0; i < graph.size(); i++) {
+                int mate = matcher.mate(i);
+                if (mate == -1) {
+                    unpairedPlayers.add(players.get(i));
+                } else if (i < mate) {
+                    matches.add(createMatch(players.get(i), players.get(mate)));
+                }
+            }
+            statistics.addMatcher(matcher);
+            return new PairingResult(matches, unpairedPlayers, statistics);
+        }
+
+        for (int i = 0; i < graph.size(); i++) {
+            if (!matcher.isActive(i)) {
+                continue;
+            }
+            // Current mate of i is always a valid candidate, so the loop ends with a pair at the latest on it.
+            for (int j = graph.nextNeighbour(i, matcher.activeMask(), i + 1); j != -1; j = graph.nextNeighbour(i, matcher.activeMask(), j + 1)) {
+                if (matcher.tryFix(i, j)) {
+                    matches.add(createMatch(players.get(i), players.get(j)));
+                    break;
+                }
+            }
+        }
+        statistics.addMatcher(matcher);
+        return new PairingResult(matches, Collections.emptyList(), statistics);
+    }
+
+    ColorAllocator getColorAllocator() {
+        return colorAllocator;
+    }
+
+    private Match createMatch(Player player1, Player player2) {
+        return colorAllocator.createMatchBasedOnSetup(player1, player2, colorAllocator.getPlayersColorMatchup(player1, player2));
+    }
+}
@@ -0,0 +1,15 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Player;
+
+import java.util.List;
+
+public interface PairingEngine {
+
+    /**
+     * Method pairs players of a single round.
+     * Players have to be ordered by pairing priority - first player in the list is paired first.
+     * Players list is not modified and created matches are not added to players' history.
+     */
+    PairingResult pair(List<Player> players);
+}
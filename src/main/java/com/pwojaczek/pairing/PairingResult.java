@@ -0,0 +1,51 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+
+import java.util.Collections;
+import java.util.List;
+
+public class PairingResult {
+
+    private final List<Match> matches;
+    private final List<Player> unpairedPlayers;
+    private final PairingStatistics statistics;
+
+    public PairingResult(List<Match> matches, List<Player> unpairedPlayers, PairingStatistics statistics) {
+        this.matches = matches;
+        this.unpairedPlayers = unpairedPlayers;
+        this.statistics = statistics;
+    }
+
+    public PairingResult(List<Match> matches, List<Player> unpairedPlayers) {
+        this(matches, unpairedPlayers, new PairingStatistics());
+    }
+
+    public PairingResult(List<Match> matches) {
+        this(matches, Collections.emptyList());
+    }
+
+    public List<Match> getMatches() {
+        return matches;
+    }
+
+    /**
+     * Players left without an opponent, because there is no pairing of the whole round
+     * without a rematch or an illegal color sequence.
+     */
+    public List<Player> getUnpairedPlayers() {
+        return unpairedPlayers;
+    }
+
+    /**
+     * Counters of work done by pairing engine to get this result.
+     */
+    public PairingStatistics getStatistics() {
+        return statistics;
+    }
+
+    public boolean isComplete() {
+        return unpairedPlayers.isEmpty();
+    }
+}
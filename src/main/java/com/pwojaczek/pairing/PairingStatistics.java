@@ -0,0 +1,83 @@
+package com.pwojaczek.pairing;
+
+/**
+ * Counters of work done by pairing engine while pairing a round.
+ * Candidates are pairs of players checked while building compatibility graph, rejected either because
+ * players already played each other or because they can't get proper colors.
+ * Fix attempts are candidate pairs tried from the top, failed fixes are attempts which would leave
+ * the rest of the round without pairing and had to be reverted - the backtracking of the search.
+ * Pruned fixes are failed fixes rejected by cheap feasibility checks, without augmenting path search.
+ */
+public class PairingStatistics {
+    private long candidates;
+    private long rematchRejections;
+    private long colorRejections;
+    private long fixAttempts;
+    private long failedFixes;
+    private long prunedFixes;
+    private long augmentingSearches;
+    private long graphBuildNanos;
+
+    public long getCandidates() {
+        return candidates;
+    }
+
+    public long getRematchRejections() {
+        return rematchRejections;
+    }
+
+    public long getColorRejections() {
+        return colorRejections;
+    }
+
+    public long getFixAttempts() {
+        return fixAttempts;
+    }
+
+    public long getFailedFixes() {
+        return failedFixes;
+    }
+
+    public long getPrunedFixes() {
+        return prunedFixes;
+    }
+
+    public long getAugmentingSearches() {
+        return augmentingSearches;
+    }
+
+    /**
+     * Time spent building compatibility graphs, which is time of rematch and color checks of all candidates.
+     */
+    public long getGraphBuildNanos() {
+        return graphBuildNanos;
+    }
+
+    /**
+     * Method adds counters of another pairing, for engines which pair round in parts.
+     */
+    public void add(PairingStatistics statistics) {
+        candidates += statistics.candidates;
+        rematchRejections += statistics.rematchRejections;
+        colorRejections += statistics.colorRejections;
+        fixAttempts += statistics.fixAttempts;
+        failedFixes += statistics.failedFixes;
+        prunedFixes += statistics.prunedFixes;
+        augmentingSearches += statistics.augmentingSearches;
+        graphBuildNanos += statistics.graphBuildNanos;
+    }
+
+    void addGraph(CompatibilityGraph graph, long buildNanos) {
+        candidates += graph.candidates();
+        rematchRejections += graph.rematchRejections();
+        colorRejections += graph.colorRejections();
+        graphBuildNanos += buildNanos;
+    }
+
+    void addMatcher(BlossomMatcher matcher) {
+        fixAttempts += matcher.fixAttempts();
+        failedFixes += matcher.failedFixes();
+        prunedFixes += matcher.prunedFixes();
+        augmentingSearches += matcher.augmentingSearches();
+    }
+}
@@ -0,0 +1,37 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Player;
+import com.pwojaczek.random.RandomSource;
+
+import java.util.List;
+
+/**
+ * Pairing system of the tournament - it decides how the first round is paired and in which order
+ * players of the next rounds are given to pairing engine.
+ */
+public interface PairingSystem {
+
+    /**
+     * Method pairs players of the round with given number, counted from 1.
+     * Players are ordered by score, players with equal score by id, which is their seed.
+     * Player receiving free point in the round is not in the list.
+     * Players list is not modified and created matches are not added to players' history.
+     */
+    PairingResult pair(int round, List<Player> players, PairingEngine engine, RandomSource random);
+
+    /**
+     * Id of player who receives free point in the round with given number by schedule of the system, counted from 1.
+     * Returns -1, if free point goes to the lowest placed player without free point, as in Swiss systems.
+     */
+    default int scheduledFreePoint(int round) {
+        return -1;
+    }
+
+    /**
+     * Checks if free point goes to the lowest seed among players with equal score, instead of the highest one.
+     * Seeded systems give it to the lowest seed, so the top seeds play already in the first round.
+     */
+    default boolean freePointToLowestSeed() {
+        return false;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pwojaczek.pairing;
+
+public enum PairingSystemType {
+    DUTCH, SEEDED, BAKU, ROUND_ROBIN, DOUBLE_ROUND_ROBIN, SCHEVENINGEN;
+
+    /**
+     * Creates pairing system of this type for tournament with given count of rounds and registered players.
+     * Throws IllegalArgumentException, if the system can't play so many rounds with the players.
+     */
+    public PairingSystem create(int rounds, int fieldSize, ColorAllocator colorAllocator) {
+        if (rounds > maxRounds(fieldSize)) {
+            throw new IllegalArgumentException(this + " pairing system can't play " + rounds + " rounds with " + fieldSize + " players");
+        }
+        switch (this) {
+            case SEEDED:
+                return new SeededPairingSystem(colorAllocator);
+            case BAKU:
+                return new BakuPairingSystem(rounds, fieldSize, colorAllocator);
+            case ROUND_ROBIN:
+                return new RoundRobinPairingSystem(fieldSize, 1);
+            case DOUBLE_ROUND_ROBIN:
+                return new RoundRobinPairingSystem(fieldSize, 2);
+            case SCHEVENINGEN:
+                return new ScheveningenPairingSystem(fieldSize);
+            default:
+                return new DutchPairingSystem(colorAllocator);
+        }
+    }
+
+    /**
+     * Maximal count of rounds of tournament with given count of players. Swiss systems need more players than rounds,
+     * schedules end with their last round. Returns 0, if the system can't pair the players at all.
+     */
+    public int maxRounds(int fieldSize) {
+        if (fieldSize < 2) {
+            return 0;
+        }
+        switch (this) {
+            case ROUND_ROBIN:
+                return RoundRobinPairingSystem.cycleRounds(fieldSize);
+            case DOUBLE_ROUND_ROBIN:
+                return 2 * RoundRobinPairingSystem.cycleRounds(fieldSize);
+            case SCHEVENINGEN:
+                return fieldSize % 2 == 0 ? ScheveningenPairingSystem.teamSize(fieldSize) : 0;
+            default:
+                return fieldSize - 1;
+        }
+    }
+}
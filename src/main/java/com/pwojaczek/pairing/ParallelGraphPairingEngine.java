@@ -0,0 +1,75 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pairing engine which builds compatibility graph of the round in parallel on fork-join pool, in chunks of score groups.
+ * Ordered players are split into chunks of adjacent score groups, each chunk with at least minChunkSize players.
+ * Score groups bigger than maxChunkSize are split into more chunks, so work is spread also in the first rounds of very big fields.
+ * Rows of players of every chunk are built by one task. Then the whole round is paired by the same global matching
+ * as in MatchingPairingEngine, which checks that the rest of the field can still be paired before it fixes a pair,
+ * so pairings are equal to the sequential ones for every pool size and chunk sizes.
+ */
+public class ParallelGraphPairingEngine implements PairingEngine {
+    private static final int DEFAULT_MIN_CHUNK_SIZE = 256;
+    private static final int DEFAULT_MAX_CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final MatchingPairingEngine matchingEngine;
+
+    public ParallelGraphPairingEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MIN_CHUNK_SIZE, DEFAULT_MAX_CHUNK_SIZE, new ColorAllocator());
+    }
+
+    public ParallelGraphPairingEngine(ForkJoinPool pool, int minChunkSize, int maxChunkSize, ColorAllocator colorAllocator) {
+        this.pool = pool;
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.matchingEngine = new MatchingPairingEngine(colorAllocator);
+    }
+
+    @Override
+    public PairingResult pair(List<Player> players) {
+        int[] bounds = chunkBounds(players);
+        if (bounds.length < 3) {
+            return matchingEngine.pair(players);
+        }
+        long buildStart = System.nanoTime();
+        CompatibilityGraph graph = new CompatibilityGraph(players, matchingEngine.getColorAllocator(), pool, bounds);
+        return matchingEngine.pair(players, graph, System.nanoTime() - buildStart);
+    }
+
+    /**
+     * Method splits ordered players into chunks of whole score groups, or parts of score groups bigger than maxChunkSize.
+     * Players left after the last chunk with at least minChunkSize players belong to it.
+     * Returns index of the first player of every chunk followed by count of players.
+     */
+    private int[] chunkBounds(List<Player> players) {
+        List<Integer> starts = new ArrayList<>();
+        int chunkStart = 0;
+        for (int i = 0; i < players.size(); i++) {
+            boolean groupEnds = i + 1 == players.size() || players.get(i + 1).getScore() != players.get(i).getScore();
+            int chunkSize = i + 1 - chunkStart;
+            if (groupEnds && chunkSize >= minChunkSize || chunkSize >= maxChunkSize) {
+                starts.add(chunkStart);
+                chunkStart = i + 1;
+            }
+        }
+        // Rest of players smaller than minChunkSize is built with the last chunk.
+        if (starts.isEmpty() && !players.isEmpty()) {
+            starts.add(0);
+        }
+        int[] bounds = new int[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) {
+            bounds[i] = starts.get(i);
+        }
+        bounds[starts.size()] = players.size();
+        return bounds;
+    }
+}
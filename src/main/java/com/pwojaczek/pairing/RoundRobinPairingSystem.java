@@ -0,0 +1,55 @@
+package com.pwojaczek.pairing;
+
+/**
+ * Round-robin pairing system with schedule of Berger tables - every player meets every other player once in every cycle.
+ * In round r of n players (n even), the fixed player n plays player k, who is (r + 1) / 2 for odd rounds and n / 2 + r / 2
+ * for even rounds, with white in even rounds. Other boards pair k + i with k - i, counted cyclically over players 1 to n - 1,
+ * with white for k + i. Odd field gets dummy player n, whose opponent receives free point.
+ * The second cycle repeats rounds of the first one with colors reversed.
+ */
+public class RoundRobinPairingSystem extends ScheduledPairingSystem {
+
+    public RoundRobinPairingSystem(int fieldSize, int cycles) {
+        super(fieldSize, cycles * cycleRounds(fieldSize), fieldSize / 2);
+        int n = fieldSize + fieldSize % 2;
+        int cycleRounds = n - 1;
+        boolean dummy = fieldSize % 2 == 1;
+        for (int round = 0; round < cycleRounds; round++) {
+            int number = round + 1;
+            int k = number % 2 == 1 ? (number - 1) / 2 : n / 2 + number / 2 - 1;
+            int board = 0;
+            if (dummy) {
+                for (int cycle = 0; cycle < cycles; cycle++) {
+                    setFreePoint(cycle * cycleRounds + round, k);
+                }
+            } else if (number % 2 == 1) {
+                setBoards(round, cycleRounds, cycles, board++, k, n - 1);
+            } else {
+                setBoards(round, cycleRounds, cycles, board++, n - 1, k);
+            }
+            for (int i = 1; i < n / 2; i++) {
+                setBoards(round, cycleRounds, cycles, board++, (k + i) % cycleRounds, (k - i + cycleRounds) % cycleRounds);
+            }
+        }
+    }
+
+    /**
+     * Count of rounds of one cycle for given count of players.
+     */
+    public static int cycleRounds(int fieldSize) {
+        return fieldSize + fieldSize % 2 - 1;
+    }
+
+    /**
+     * Method sets the board of the round in every cycle, with colors reversed in every other cycle.
+     */
+    private void setBoards(int round, int cycleRounds, int cycles, int board, int white, int black) {
+        for (int cycle = 0; cycle < cycles; cycle++) {
+            if (cycle % 2 == 0) {
+                setBoard(cycle * cycleRounds + round, board, white, black);
+            } else {
+                setBoard(cycle * cycleRounds + round, board, black, white);
+            }
+        }
+    }
+}
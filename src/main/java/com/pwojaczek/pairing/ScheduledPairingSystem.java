@@ -0,0 +1,89 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+import com.pwojaczek.random.RandomSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pairing system whose schedule is fixed before the tournament - players meet by their seeds, regardless of scores.
+ * The whole schedule is generated once into compact arrays of seeds: white and black player of every board of every round
+ * and player receiving free point in every round. Pairing of a round only looks the round up, so it takes linear time.
+ */
+public abstract class ScheduledPairingSystem implements PairingSystem {
+    static final int NO_PLAYER = -1;
+
+    private final int fieldSize;
+    private final int rounds;
+    private final int boards;
+    private final int[] whites;
+    private final int[] blacks;
+    private final int[] freePoints;
+
+    ScheduledPairingSystem(int fieldSize, int rounds, int boards) {
+        this.fieldSize = fieldSize;
+        this.rounds = rounds;
+        this.boards = boards;
+        this.whites = new int[rounds * boards];
+        this.blacks = new int[rounds * boards];
+        this.freePoints = new int[rounds];
+        Arrays.fill(freePoints, NO_PLAYER);
+    }
+
+    /**
+     * Count of rounds of the whole schedule.
+     */
+    public int getScheduleRounds() {
+        return rounds;
+    }
+
+    /**
+     * Method sets players of the board of the round. Rounds and boards are counted from 0.
+     */
+    void setBoard(int round, int board, int white, int black) {
+        whites[round * boards + board] = white;
+        blacks[round * boards + board] = black;
+    }
+
+    /**
+     * Method sets player receiving free point in the round, counted from 0.
+     */
+    void setFreePoint(int round, int player) {
+        freePoints[round] = player;
+    }
+
+    @Override
+    public int scheduledFreePoint(int round) {
+        checkRound(round);
+        return freePoints[round - 1];
+    }
+
+    @Override
+    public PairingResult pair(int round, List<Player> players, PairingEngine engine, RandomSource random) {
+        checkRound(round);
+        Player[] bySeed = new Player[fieldSize];
+        for (Player player : players) {
+            bySeed[player.getId()] = player;
+        }
+        List<Match> matches = new ArrayList<>(boards);
+        for (int i = (round - 1) * boards; i < round * boards; i++) {
+            Player white = bySeed[whites[i]];
+            Player black = bySeed[blacks[i]];
+            if (white == null || black == null) {
+                throw new IllegalStateException("Player with seed " + (white == null ? whites[i] : blacks[i])
+                        + " is not in players of round " + round);
+            }
+            matches.add(new Match(white, black));
+        }
+        return new PairingResult(matches);
+    }
+
+    private void checkRound(int round) {
+        if (round < 1 || round > rounds) {
+            throw new IllegalArgumentException("Schedule has " + rounds + " rounds, there is no round " + round);
+        }
+    }
+}
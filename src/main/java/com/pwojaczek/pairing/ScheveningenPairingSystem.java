@@ -0,0 +1,35 @@
+package com.pwojaczek.pairing;
+
+/**
+ * Scheveningen pairing system - the first half of seeds is team A, the second half team B, and every player of team A
+ * meets every player of team B. In round r player i of team A plays player (i + r) mod m of team B, where m is the size of a team.
+ * Team A has white in odd rounds and black in even rounds, so every player alternates colors.
+ */
+public class ScheveningenPairingSystem extends ScheduledPairingSystem {
+
+    public ScheveningenPairingSystem(int fieldSize) {
+        super(fieldSize, teamSize(fieldSize), teamSize(fieldSize));
+        int teamSize = teamSize(fieldSize);
+        for (int round = 0; round < teamSize; round++) {
+            for (int i = 0; i < teamSize; i++) {
+                int playerA = i;
+                int playerB = teamSize + (i + round) % teamSize;
+                if (round % 2 == 0) {
+                    setBoard(round, i, playerA, playerB);
+                } else {
+                    setBoard(round, i, playerB, playerA);
+                }
+            }
+        }
+    }
+
+    /**
+     * Size of each team, which is also count of rounds. Throws IllegalArgumentException for odd count of players.
+     */
+    public static int teamSize(int fieldSize) {
+        if (fieldSize % 2 == 1) {
+            throw new IllegalArgumentException("Scheveningen needs even count of players, there are " + fieldSize);
+        }
+        return fieldSize / 2;
+    }
+}
@@ -0,0 +1,48 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+import com.pwojaczek.random.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pairing system with seeded first round - the top half of seeds plays the bottom half, seed 1 plays seed n/2 + 1 and so on.
+ * Next rounds are paired top-down by score with pairing engine.
+ */
+public class SeededPairingSystem implements PairingSystem {
+
+    private final ColorAllocator colorAllocator;
+
+    public SeededPairingSystem(ColorAllocator colorAllocator) {
+        this.colorAllocator = colorAllocator;
+    }
+
+    @Override
+    public boolean freePointToLowestSeed() {
+        return true;
+    }
+
+    @Override
+    public PairingResult pair(int round, List<Player> players, PairingEngine engine, RandomSource random) {
+        if (round == 1) {
+            List<Match> matches = new ArrayList<>(players.size() / 2);
+            pairHalves(players, matches, colorAllocator);
+            return new PairingResult(matches);
+        }
+        return engine.pair(players);
+    }
+
+    /**
+     * Method pairs the top half of group with its bottom half in order of the group and adds matches to the list.
+     * Colors alternate from board to board - the higher seed has white on the first board and every other board after it.
+     */
+    static void pairHalves(List<Player> group, List<Match> matches, ColorAllocator colorAllocator) {
+        int half = group.size() / 2;
+        for (int i = 0; i < half; i++) {
+            int colorSetup = matches.size() % 2 == 0 ? 1 : 2;
+            matches.add(colorAllocator.createMatchBasedOnSetup(group.get(i), group.get(i + half), colorSetup));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.pwojaczek.preview;
+
+import com.pwojaczek.Match;
+
+import java.util.List;
+
+/**
+ * Pairings of the next round for every possible outcome of boards of the pending round which have no result yet.
+ * When the pending round is finished, scenario which happened is its real pairing.
+ */
+public class PairingPreview {
+    private final int round;
+    private final List<Match> pendingMatches;
+    private final List<Integer> openBoards;
+    private final List<PreviewScenario> scenarios;
+    private final long nanos;
+
+    PairingPreview(int round, List<Match> pendingMatches, List<Integer> openBoards, List<PreviewScenario> scenarios, long nanos) {
+        this.round = round;
+        this.pendingMatches = pendingMatches;
+        this.openBoards = openBoards;
+        this.scenarios = scenarios;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Number of the previewed round, the one after the pending round.
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * Boards of the pending round without result when the preview was made, numbered from 1.
+     */
+    public List<Integer> getOpenBoards() {
+        return openBoards;
+    }
+
+    /**
+     * Scenarios in order of outcomes of open boards - the last open board changes first, from WIN through DRAW to LOSS.
+     */
+    public List<PreviewScenario> getScenarios() {
+        return scenarios;
+    }
+
+    /**
+     * Time of pairing all scenarios in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Scenario which happened in finished round, null if the round is not the previewed pending round.
+     */
+    public PreviewScenario scenarioFor(List<Match> finishedMatches) {
+        if (finishedMatches != pendingMatches) {
+            return null;
+        }
+        for (PreviewScenario scenario : scenarios) {
+            if (scenario.happened(finishedMatches)) {
+                return scenario;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pwojaczek.preview;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.pairing.PairingResult;
+
+import java.util.List;
+
+/**
+ * One possible ending of the pending round - outcomes of all its boards - with pairing of the next round it leads to.
+ * Pairing refers to real players, but their histories don't contain its matches.
+ */
+public class PreviewScenario {
+    private final OutcomeEnum[] outcomes;
+    private final PairingResult pairing;
+
+    PreviewScenario(OutcomeEnum[] outcomes, PairingResult pairing) {
+        this.outcomes = outcomes;
+        this.pairing = pairing;
+    }
+
+    /**
+     * Outcome of the board of the pending round in this scenario. Boards are numbered from 1.
+     */
+    public OutcomeEnum getOutcome(int board) {
+        return outcomes[board - 1];
+    }
+
+    public PairingResult getPairing() {
+        return pairing;
+    }
+
+    /**
+     * Method checks if matches of finished round have outcomes of this scenario.
+     */
+    boolean happened(List<Match> matches) {
+        if (matches.size() != outcomes.length) {
+            return false;
+        }
+        for (int i = 0; i < outcomes.length; i++) {
+            if (matches.get(i).getOutcome() != outcomes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,161 @@
+package com.pwojaczek.preview;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+import com.pwojaczek.pairing.PairingResult;
+import com.pwojaczek.standings.StandingsIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Pairing of the next round before results of the pending round are all in.
+ * State after the pending round is forked copy-on-write: one layer of speculative players has points of boards with known
+ * results, every scenario copies only references to it and replaces players of open boards with their own views.
+ * Real players are never modified, so scenarios are paired at the same time on the executor, each with its own
+ * standings index, and ones which don't happen are simply dropped.
+ * Players of the next round are ordered and free point is chosen the same way as when the round is really paired,
+ * so pairing of scenario which happens is equal to pairing made after the round.
+ */
+public class SpeculativePairing {
+    private static final OutcomeEnum[] OUTCOMES = {OutcomeEnum.WIN, OutcomeEnum.DRAW, OutcomeEnum.LOSS};
+
+    private final List<Player> players;
+    private final boolean oddPlayers;
+    private final int scheduledFreePoint;
+    private final boolean freePointToLowestSeed;
+    private final Function<List<Player>, PairingResult> pairing;
+    private final Executor executor;
+
+    /**
+     * Players are all players of the tournament, indexed by id. Pairing gets players ordered for the next round,
+     * without player receiving free point, and must not modify them. Scheduled free point is id of player receiving
+     * free point in the next round by schedule of pairing system, -1 if it goes to the lowest placed player without free point,
+     * the lowest seed first among equal scores if freePointToLowestSeed is set.
+     */
+    public SpeculativePairing(List<Player> players, boolean oddPlayers, int scheduledFreePoint, boolean freePointToLowestSeed,
+                              Function<List<Player>, PairingResult> pairing, Executor executor) {
+        this.players = players;
+        this.oddPlayers = oddPlayers;
+        this.scheduledFreePoint = scheduledFreePoint;
+        this.freePointToLowestSeed = freePointToLowestSeed;
+        this.pairing = pairing;
+        this.executor = executor;
+    }
+
+    /**
+     * Method pairs the next round for every combination of outcomes of open boards of the pending round.
+     * Outcomes are known outcomes of pending matches by board, null for open boards. Players can't be changed until it returns.
+     * Throws IllegalStateException, if there are more scenarios than maxScenarios.
+     */
+    public PairingPreview preview(int round, List<Match> pendingMatches, OutcomeEnum[] outcomes, int maxScenarios) {
+        long start = System.nanoTime();
+        List<Integer> openBoards = new ArrayList<>();
+        float[] points = new float[players.size()];
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] == null) {
+                openBoards.add(i + 1);
+            } else {
+                addPoints(points, pendingMatches.get(i), outcomes[i]);
+            }
+        }
+        int scenarioCount = 1;
+        for (int i = 0; i < openBoards.size(); i++) {
+            scenarioCount *= OUTCOMES.length;
+            if (scenarioCount > maxScenarios) {
+                throw new IllegalStateException(openBoards.size() + " boards are open, preview is limited to " + maxScenarios + " scenarios");
+            }
+        }
+        Player[] layer = new Player[players.size()];
+        for (Player player : players) {
+            layer[player.getId()] = new SpeculativePlayer(player, player.getScore() + points[player.getId()]);
+        }
+
+        List<CompletableFuture<PreviewScenario>> futures = new ArrayList<>(scenarioCount);
+        for (int scenario = 0; scenario < scenarioCount; scenario++) {
+            OutcomeEnum[] scenarioOutcomes = outcomes.clone();
+            int remaining = scenario;
+            for (int i = openBoards.size() - 1; i >= 0; i--) {
+                scenarioOutcomes[openBoards.get(i) - 1] = OUTCOMES[remaining % OUTCOMES.length];
+                remaining /= OUTCOMES.length;
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> pairScenario(layer, pendingMatches, openBoards, scenarioOutcomes), executor));
+        }
+        List<PreviewScenario> scenarios = new ArrayList<>(scenarioCount);
+        try {
+            for (CompletableFuture<PreviewScenario> future : futures) {
+                scenarios.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return new PairingPreview(round, pendingMatches, Collections.unmodifiableList(openBoards), Collections.unmodifiableList(scenarios),
+                System.nanoTime() - start);
+    }
+
+    private PreviewScenario pairScenario(Player[] layer, List<Match> pendingMatches, List<Integer> openBoards, OutcomeEnum[] outcomes) {
+        Player[] scenarioLayer = layer.clone();
+        for (int board : openBoards) {
+            Match match = pendingMatches.get(board - 1);
+            Player player1 = match.getPlayer1();
+            Player player2 = match.getPlayer2();
+            OutcomeEnum outcome = outcomes[board - 1];
+            scenarioLayer[player1.getId()] = new SpeculativePlayer(player1, layer[player1.getId()].getScore() + points(outcome, true));
+            scenarioLayer[player2.getId()] = new SpeculativePlayer(player2, layer[player2.getId()].getScore() + points(outcome, false));
+        }
+        StandingsIndex standings = new StandingsIndex(Arrays.asList(scenarioLayer));
+        List<Player> orderedPlayers = standings.ordered();
+        if (oddPlayers) {
+            Player freePointPlayer = scheduledFreePoint < 0
+                    ? standings.lowestWithoutFreePoint(freePointToLowestSeed) : scenarioLayer[scheduledFreePoint];
+            if (freePointPlayer == null) {
+                throw new RuntimeException("No player to assign free point to.");
+            }
+            orderedPlayers.remove(freePointPlayer);
+        }
+        return new PreviewScenario(outcomes, toRealPlayers(pairing.apply(orderedPlayers)));
+    }
+
+    /**
+     * Method replaces speculative players of pairing with real players.
+     */
+    private static PairingResult toRealPlayers(PairingResult result) {
+        List<Match> matches = new ArrayList<>(result.getMatches().size());
+        for (Match match : result.getMatches()) {
+            matches.add(new Match(real(match.getPlayer1()), real(match.getPlayer2())));
+        }
+        List<Player> unpairedPlayers = new ArrayList<>(result.getUnpairedPlayers().size());
+        for (Player player : result.getUnpairedPlayers()) {
+            unpairedPlayers.add(real(player));
+        }
+        return new PairingResult(matches, unpairedPlayers, result.getStatistics());
+    }
+
+    private static Player real(Player player) {
+        return ((SpeculativePlayer) player).getPlayer();
+    }
+
+    private static void addPoints(float[] points, Match match, OutcomeEnum outcome) {
+        points[match.getPlayer1().getId()] += outcome == OutcomeEnum.FREE_POINT ? 1f : points(outcome, true);
+        if (match.getPlayer2() != null) {
+            points[match.getPlayer2().getId()] += points(outcome, false);
+        }
+    }
+
+    private static float points(OutcomeEnum outcome, boolean white) {
+        if (outcome == OutcomeEnum.DRAW) {
+            return 0.5f;
+        }
+        return outcome == (white ? OutcomeEnum.WIN : OutcomeEnum.LOSS) ? 1f : 0f;
+    }
+}
@@ -0,0 +1,121 @@
+package com.pwojaczek.preview;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only view of a player with speculative score. Colors, opponents and free point are read from the real player,
+ * because matches of a pending round are added to histories already when it's paired - only its points are not known.
+ * View is never modified, so it can be shared by scenarios paired at the same time.
+ */
+class SpeculativePlayer extends Player {
+    private final Player player;
+    private final float score;
+
+    SpeculativePlayer(Player player, float score) {
+        super(player.getId());
+        this.player = player;
+        this.score = score;
+    }
+
+    Player getPlayer() {
+        return player;
+    }
+
+    @Override
+    public String getName() {
+        return player.getName();
+    }
+
+    @Override
+    public boolean receivedFreePoint() {
+        return player.receivedFreePoint();
+    }
+
+    @Override
+    public int getRating() {
+        return player.getRating();
+    }
+
+    @Override
+    public float getScore() {
+        return score;
+    }
+
+    @Override
+    public List<Match> getMatchHistory() {
+        return Collections.unmodifiableList(player.getMatchHistory());
+    }
+
+    @Override
+    public int getGamesPlayed() {
+        return player.getGamesPlayed();
+    }
+
+    @Override
+    public int getWhiteCount() {
+        return player.getWhiteCount();
+    }
+
+    @Override
+    public int getLastColors() {
+        return player.getLastColors();
+    }
+
+    @Override
+    public boolean playedWith(Player opponent) {
+        return player.playedWith(opponent);
+    }
+
+    @Override
+    public List<Player> getPlayersPlayed() {
+        return player.getPlayersPlayed();
+    }
+
+    @Override
+    public void setName(String name) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setFreePoint(boolean freePoint) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setRating(int rating) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setScore(float score) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setMatchHistory(List<Match> matchHistory) {
+        throw readOnly();
+    }
+
+    @Override
+    public void draw() {
+        throw readOnly();
+    }
+
+    @Override
+    public void win() {
+        throw readOnly();
+    }
+
+    @Override
+    public void addMatch(Match match) {
+        throw readOnly();
+    }
+
+    private UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Speculative view of player " + getId() + " is read-only");
+    }
+}
@@ -0,0 +1,23 @@
+package com.pwojaczek.random;
+
+/**
+ * Source of randomness of one tournament, used for the first round pairing and for automatic outcomes.
+ * Source is not shared between threads - thread which needs its own randomness gets it with split().
+ */
+public interface RandomSource {
+
+    /**
+     * Returns random number from 0 (inclusive) to bound (exclusive).
+     */
+    int nextInt(int bound);
+
+    /**
+     * Returns random number from 0.0 (inclusive) to 1.0 (exclusive).
+     */
+    double nextDouble();
+
+    /**
+     * Returns new source which can be used independently, for example in another thread.
+     */
+    RandomSource split();
+}
@@ -0,0 +1,15 @@
+package com.pwojaczek.random;
+
+public enum RandomStrategy {
+    SPLITTABLE, THREAD_LOCAL;
+
+    /**
+     * Creates random source of this strategy. Seed is optional and ignored by THREAD_LOCAL strategy.
+     */
+    public RandomSource create(Long seed) {
+        if (this == THREAD_LOCAL) {
+            return new ThreadLocalRandomSource();
+        }
+        return seed == null ? new SplittableRandomSource() : new SplittableRandomSource(seed);
+    }
+}
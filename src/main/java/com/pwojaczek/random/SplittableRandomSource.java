@@ -0,0 +1,39 @@
+package com.pwojaczek.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seedable random source. Sources split in the same order from the same seed give the same numbers,
+ * so tournaments and simulations are reproducible.
+ */
+public class SplittableRandomSource implements RandomSource {
+
+    private final SplittableRandom random;
+
+    public SplittableRandomSource(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    public SplittableRandomSource() {
+        this(new SplittableRandom());
+    }
+
+    private SplittableRandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split());
+    }
+}
@@ -0,0 +1,25 @@
+package com.pwojaczek.random;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random source backed by ThreadLocalRandom of the calling thread. It never contends between threads,
+ * but it can't be seeded, so results are not reproducible.
+ */
+public class ThreadLocalRandomSource implements RandomSource {
+
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+
+    @Override
+    public RandomSource split() {
+        return this;
+    }
+}
@@ -0,0 +1,137 @@
+package com.pwojaczek.results;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.sun.net.httpserver.HttpExchange;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * HTTP handlers of result entry, used by ResultServer and by tournament server.
+ * Round request returns boards of the round waiting for results.
+ * Results request takes {"round": 3, "board": 12, "outcome": "WIN"} or an array of such objects and returns
+ * submission status of every result. Round is optional - if it's given, it has to be the current round.
+ */
+public class ResultEndpoint {
+    public static final int HTTP_OK = 200;
+    public static final int HTTP_CREATED = 201;
+    public static final int HTTP_ACCEPTED = 202;
+    public static final int HTTP_BAD_REQUEST = 400;
+    public static final int HTTP_NOT_FOUND = 404;
+    public static final int HTTP_BAD_METHOD = 405;
+    public static final int HTTP_CONFLICT = 409;
+    public static final int HTTP_UNAVAILABLE = 503;
+
+    private final Supplier<RoundResults> currentRound;
+    private final ResultSubmitter submitter;
+
+    public ResultEndpoint(Supplier<RoundResults> currentRound, ResultSubmitter submitter) {
+        this.currentRound = currentRound;
+        this.submitter = submitter;
+    }
+
+    public void handleRound(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            respond(exchange, HTTP_BAD_METHOD, error("GET expected"));
+            return;
+        }
+        RoundResults results = currentRound.get();
+        if (results == null) {
+            respond(exchange, HTTP_NOT_FOUND, error("No round waits for results"));
+            return;
+        }
+        StringBuilder body = new StringBuilder(64 * results.getBoards() + 64);
+        body.append("{\"round\":").append(results.getRound()).append(",\"missing\":").append(results.getMissing()).append(",\"boards\":[");
+        for (int board = 1; board <= results.getBoards(); board++) {
+            Match match = results.getMatch(board);
+            OutcomeEnum outcome = results.getOutcome(board);
+            if (board > 1) {
+                body.append(',');
+            }
+            body.append("{\"board\":").append(board).append(",\"white\":").append(JSONObject.quote(match.getPlayer1().getName()));
+            if (match.getPlayer2() != null) {
+                body.append(",\"black\":").append(JSONObject.quote(match.getPlayer2().getName()));
+            }
+            body.append(",\"outcome\":").append(outcome == null ? "null" : JSONObject.quote(outcome.name())).append('}');
+        }
+        body.append("]}");
+        respond(exchange, HTTP_OK, body.toString());
+    }
+
+    public void handleResults(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            respond(exchange, HTTP_BAD_METHOD, error("POST expected"));
+            return;
+        }
+        Object request;
+        try {
+            request = readBody(exchange);
+        } catch (JSONException e) {
+            respond(exchange, HTTP_BAD_REQUEST, error(e.getMessage()));
+            return;
+        }
+        if (request instanceof JSONObject) {
+            SubmissionStatus status = submit((JSONObject) request);
+            respond(exchange, statusCode(status), "{\"status\":\"" + status.name() + "\"}");
+        } else if (request instanceof JSONArray) {
+            JSONArray batch = (JSONArray) request;
+            StringBuilder body = new StringBuilder(24 * batch.length() + 2).append('[');
+            for (int i = 0; i < batch.length(); i++) {
+                if (i > 0) {
+                    body.append(',');
+                }
+                JSONObject result = batch.optJSONObject(i);
+                SubmissionStatus status = result == null ? SubmissionStatus.INVALID_OUTCOME : submit(result);
+                body.append("{\"status\":\"").append(status.name()).append("\"}");
+            }
+            respond(exchange, HTTP_OK, body.append(']').toString());
+        } else {
+            respond(exchange, HTTP_BAD_REQUEST, error("Result object or array expected"));
+        }
+    }
+
+    private SubmissionStatus submit(JSONObject result) {
+        OutcomeEnum outcome = result.optEnum(OutcomeEnum.class, "outcome");
+        return submitter.submit(result.optInt("round"), result.optInt("board"), outcome);
+    }
+
+    private static int statusCode(SubmissionStatus status) {
+        switch (status) {
+            case ACCEPTED:
+                return HTTP_OK;
+            case ALREADY_SUBMITTED:
+            case ROUND_NOT_OPEN:
+                return HTTP_CONFLICT;
+            default:
+                return HTTP_BAD_REQUEST;
+        }
+    }
+
+    /**
+     * Method parses JSON value from request body - object, array or simple value.
+     */
+    public static Object readBody(HttpExchange exchange) {
+        return new JSONTokener(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)).nextValue();
+    }
+
+    public static String error(String message) {
+        return "{\"error\":" + JSONObject.quote(message) + "}";
+    }
+
+    public static void respond(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.pwojaczek.results;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Small HTTP endpoint for result entry of a single tournament, served on a fixed pool of threads.
+ * GET /round returns boards of the round waiting for results, POST /results submits results - see ResultEndpoint.
+ */
+public class ResultServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public ResultServer(Supplier<RoundResults> currentRound, int port, int threads) {
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while starting result server on port " + port, e);
+        }
+        ResultEndpoint endpoint = new ResultEndpoint(currentRound, (round, board, outcome) -> {
+            RoundResults results = currentRound.get();
+            if (results == null || round != 0 && round != results.getRound()) {
+                return SubmissionStatus.ROUND_NOT_OPEN;
+            }
+            return results.submit(board, outcome);
+        });
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/round", endpoint::handleRound);
+        server.createContext("/results", endpoint::handleResults);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,12 @@
+package com.pwojaczek.results;
+
+import com.pwojaczek.OutcomeEnum;
+
+/**
+ * Receiver of submitted results. Round 0 means the round currently open for results.
+ */
+@FunctionalInterface
+public interface ResultSubmitter {
+
+    SubmissionStatus submit(int round, int board, OutcomeEnum outcome);
+}
@@ -0,0 +1,102 @@
+package com.pwojaczek.results;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Results of a round submitted concurrently by many arbiters. Every board has its own slot, which is filled
+ * once by compare-and-set, so submissions of different boards never wait for each other.
+ * Boards are numbered from 1, as they are published by output sinks. Free point boards are filled on creation.
+ * When the last board gets its result, the round is complete and the tournament thread waiting for it continues.
+ */
+public class RoundResults {
+    private final int round;
+    private final List<Match> matches;
+    private final AtomicReferenceArray<OutcomeEnum> outcomes;
+    private final AtomicInteger missing;
+    private final CountDownLatch completion = new CountDownLatch(1);
+
+    public RoundResults(int round, List<Match> matches) {
+        this.round = round;
+        this.matches = matches;
+        this.outcomes = new AtomicReferenceArray<>(matches.size());
+        int missingResults = 0;
+        for (int i = 0; i < matches.size(); i++) {
+            if (matches.get(i).getOutcome() == OutcomeEnum.FREE_POINT) {
+                outcomes.set(i, OutcomeEnum.FREE_POINT);
+            } else {
+                missingResults++;
+            }
+        }
+        this.missing = new AtomicInteger(missingResults);
+        if (missingResults == 0) {
+            completion.countDown();
+        }
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public int getBoards() {
+        return matches.size();
+    }
+
+    public List<Match> getMatches() {
+        return matches;
+    }
+
+    public Match getMatch(int board) {
+        return matches.get(board - 1);
+    }
+
+    /**
+     * Outcome submitted for the board, null if there is none yet.
+     */
+    public OutcomeEnum getOutcome(int board) {
+        return outcomes.get(board - 1);
+    }
+
+    public int getMissing() {
+        return missing.get();
+    }
+
+    public boolean isComplete() {
+        return completion.getCount() == 0;
+    }
+
+    /**
+     * Method submits outcome of a board. Submitted outcome is final - later submission of the board is rejected.
+     * Submission of the last missing board completes the round.
+     */
+    public SubmissionStatus submit(int board, OutcomeEnum outcome) {
+        if (board < 1 || board > matches.size()) {
+            return SubmissionStatus.INVALID_BOARD;
+        }
+        if (outcome == null || outcome == OutcomeEnum.FREE_POINT) {
+            return SubmissionStatus.INVALID_OUTCOME;
+        }
+        if (!outcomes.compareAndSet(board - 1, null, outcome)) {
+            return SubmissionStatus.ALREADY_SUBMITTED;
+        }
+        if (missing.decrementAndGet() == 0) {
+            completion.countDown();
+        }
+        return SubmissionStatus.ACCEPTED;
+    }
+
+    /**
+     * Method waits until all boards have results and sets submitted outcomes to matches of the round.
+     */
+    public void awaitCompletion() throws InterruptedException {
+        completion.await();
+        for (int i = 0; i < matches.size(); i++) {
+            matches.get(i).setOutcome(outcomes.get(i));
+        }
+    }
+}
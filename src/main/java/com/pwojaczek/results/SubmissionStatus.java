@@ -0,0 +1,5 @@
+package com.pwojaczek.results;
+
+public enum SubmissionStatus {
+    ACCEPTED, ALREADY_SUBMITTED, INVALID_BOARD, INVALID_OUTCOME, ROUND_NOT_OPEN
+}
@@ -0,0 +1,79 @@
+package com.pwojaczek.server;
+
+import com.pwojaczek.pairing.PairingResult;
+
+/**
+ * Asynchronous pairing of a round of hosted tournament. Status is polled by clients until the job is DONE or FAILED,
+ * finished job is kept by the server for a limited time.
+ */
+public class PairingJob {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    private final long id;
+    private final Tournament tournament;
+    private final int round;
+    private volatile Status status = Status.QUEUED;
+    private volatile PairingResult result;
+    private volatile String error;
+    private volatile long finishedNanos;
+
+    PairingJob(long id, Tournament tournament, int round) {
+        this.id = id;
+        this.tournament = tournament;
+        this.round = round;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Tournament getTournament() {
+        return tournament;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Pairing of the round, available when the job is DONE. Incomplete result means the tournament can't continue.
+     */
+    public PairingResult getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    void running() {
+        status = Status.RUNNING;
+    }
+
+    /**
+     * Checks if the job finished more than ttlNanos before given System.nanoTime.
+     */
+    boolean isExpired(long nanos, long ttlNanos) {
+        Status status = this.status;
+        return (status == Status.DONE || status == Status.FAILED) && nanos - finishedNanos > ttlNanos;
+    }
+
+    void done(PairingResult result) {
+        this.result = result;
+        finishedNanos = System.nanoTime();
+        status = Status.DONE;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        finishedNanos = System.nanoTime();
+        status = Status.FAILED;
+    }
+}
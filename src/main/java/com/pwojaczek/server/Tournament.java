@@ -0,0 +1,310 @@
+package com.pwojaczek.server;
+
+import com.pwojaczek.MatchService;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+import com.pwojaczek.TournamentType;
+import com.pwojaczek.metrics.PairingMetrics;
+import com.pwojaczek.output.NoOpOutputSink;
+import com.pwojaczek.pairing.PairingEngine;
+import com.pwojaczek.pairing.PairingResult;
+import com.pwojaczek.pairing.PairingSystemType;
+import com.pwojaczek.preview.PairingPreview;
+import com.pwojaczek.random.RandomSource;
+import com.pwojaczek.results.RoundResults;
+import com.pwojaczek.results.SubmissionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tournament hosted by the server, backed by its own MatchService.
+ * Players are registered until the first round is paired. Every round is paired by asynchronous job,
+ * then it's open for results, which are submitted concurrently. Submission of the last result commits the round.
+ * Scores are changed only by commit under write lock, so standings are read under read lock.
+ * Pairing metrics of the tournament are registered in JMX as tournament-{id} until the tournament is finished or closed.
+ * When only a few boards of the round miss results, the next round is previewed for all their outcomes by background job,
+ * so pairing job of the next round just takes pairing of the scenario which happened.
+ */
+public class Tournament {
+
+    public enum State {
+        REGISTRATION, PAIRING, RESULTS, READY, FINISHED
+    }
+
+    private static final int PREVIEW_OPEN_BOARDS = 2;
+
+    private final long id;
+    private final MatchService matchService;
+    private final ThreadPoolExecutor pairingExecutor;
+    private final ReadWriteLock scoresLock = new ReentrantReadWriteLock();
+    private State state = State.REGISTRATION;
+    private volatile RoundResults currentResults;
+    private AtomicBoolean roundCommitted;
+    private AtomicBoolean previewStarted;
+
+    Tournament(long id, PairingEngine pairingEngine, PairingSystemType pairingSystemType, int rounds, RandomSource random,
+               ThreadPoolExecutor pairingExecutor) {
+        this.id = id;
+        this.pairingExecutor = pairingExecutor;
+        this.matchService = new MatchService(pairingEngine, rounds, TournamentType.MANUAL, new ArrayList<>());
+        matchService.setPairingSystemType(pairingSystemType);
+        matchService.setRandom(random);
+        matchService.setOutput(new NoOpOutputSink());
+        matchService.getStandingsIndex();
+        matchService.getPairingMetrics().register("tournament-" + id);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getRounds() {
+        return matchService.getRounds();
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getPlayedRounds() {
+        return matchService.getPlayedRounds();
+    }
+
+    /**
+     * Method registers players and returns them. Returns null, if registration is already closed.
+     */
+    public synchronized List<Player> registerPlayers(List<String> names) {
+        if (state != State.REGISTRATION) {
+            return null;
+        }
+        List<Player> registered = new ArrayList<>(names.size());
+        scoresLock.writeLock().lock();
+        try {
+            for (String name : names) {
+                registered.add(matchService.registerPlayer(name));
+            }
+            // Index is rebuilt here, so readers never build it lazily under read lock.
+            matchService.getStandingsIndex();
+        } finally {
+            scoresLock.writeLock().unlock();
+        }
+        return registered;
+    }
+
+    /**
+     * Checks if registered players are enough to play all rounds with pairing system of the tournament.
+     */
+    private boolean canStart() {
+        return matchService.getRounds() <= matchService.getPairingSystemType().maxRounds(matchService.getPlayers().size());
+    }
+
+    /**
+     * Method submits pairing of the next round to pairing executor.
+     * Returns null, if the tournament is not ready to be paired. If executor rejects the job, state is not changed.
+     */
+    synchronized PairingJob startPairing(long jobId) {
+        boolean ready = state == State.READY
+                || state == State.REGISTRATION && canStart();
+        if (!ready || matchService.getPlayedRounds() == matchService.getRounds()) {
+            return null;
+        }
+        PairingJob job = new PairingJob(jobId, this, matchService.getPlayedRounds() + 1);
+        pairingExecutor.execute(() -> pair(job));
+        state = State.PAIRING;
+        return job;
+    }
+
+    private void pair(PairingJob job) {
+        job.running();
+        PairingResult result;
+        try {
+            scoresLock.readLock().lock();
+            try {
+                result = matchService.pairNextRound();
+            } finally {
+                scoresLock.readLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                state = matchService.getPlayedRounds() == 0 ? State.REGISTRATION : State.READY;
+            }
+            job.failed(e.toString());
+            return;
+        }
+        synchronized (this) {
+            if (result.isComplete()) {
+                currentResults = new RoundResults(job.getRound(), result.getMatches());
+                roundCommitted = new AtomicBoolean();
+                previewStarted = new AtomicBoolean();
+                state = State.RESULTS;
+            } else {
+                state = State.FINISHED;
+                close();
+            }
+        }
+        job.done(result);
+        if (result.isComplete()) {
+            commitIfComplete(currentResults, roundCommitted);
+        }
+    }
+
+    public RoundResults getCurrentResults() {
+        return currentResults;
+    }
+
+    /**
+     * Method submits result of a board of the round open for results. Can be called from many threads,
+     * submission which completes the round commits it.
+     */
+    public SubmissionStatus submitResult(int round, int board, OutcomeEnum outcome) {
+        RoundResults results;
+        AtomicBoolean committed;
+        AtomicBoolean previewing;
+        synchronized (this) {
+            results = currentResults;
+            committed = roundCommitted;
+            previewing = previewStarted;
+        }
+        if (results == null || results.getRound() != round && round != 0) {
+            return SubmissionStatus.ROUND_NOT_OPEN;
+        }
+        SubmissionStatus status = results.submit(board, outcome);
+        if (status == SubmissionStatus.ACCEPTED) {
+            startPreviewIfFewMissing(results, previewing);
+            commitIfComplete(results, committed);
+        }
+        return status;
+    }
+
+    /**
+     * Method starts background preview of the next round, when the round misses results of at most PREVIEW_OPEN_BOARDS boards.
+     * Preview is only an optimization - if executor is busy or preview fails, the next round is paired as usual.
+     */
+    private void startPreviewIfFewMissing(RoundResults results, AtomicBoolean previewing) {
+        int missing = results.getMissing();
+        if (missing == 0 || missing > PREVIEW_OPEN_BOARDS || results.getRound() >= getRounds() || !previewing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            pairingExecutor.execute(() -> {
+                try {
+                    preview(results);
+                } catch (RuntimeException e) {
+                    // The round is paired without preview.
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The round is paired without preview.
+        }
+    }
+
+    /**
+     * Method previews the next round for all outcomes of boards of the current round without result.
+     * Round is not committed until preview ends. Throws IllegalStateException, if there is no round to preview
+     * or too many boards miss results.
+     */
+    public PairingPreview preview() {
+        RoundResults results = currentResults;
+        if (results == null) {
+            throw new IllegalStateException("Tournament is " + getState() + ", there is no round waiting for results");
+        }
+        return preview(results);
+    }
+
+    private PairingPreview preview(RoundResults results) {
+        scoresLock.readLock().lock();
+        try {
+            if (results != currentResults) {
+                throw new IllegalStateException("Round " + results.getRound() + " is already committed");
+            }
+            return matchService.previewNextRound(results, MatchService.DEFAULT_PREVIEW_SCENARIOS);
+        } finally {
+            scoresLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The last preview of the next round, null if the round is already paired or there is no preview.
+     */
+    public PairingPreview getPreview() {
+        return matchService.getPreview();
+    }
+
+    private void commitIfComplete(RoundResults results, AtomicBoolean committed) {
+        if (!results.isComplete() || !committed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            results.awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Commit of round was interrupted", e);
+        }
+        scoresLock.writeLock().lock();
+        try {
+            matchService.finishRound(results.getMatches());
+        } finally {
+            scoresLock.writeLock().unlock();
+        }
+        synchronized (this) {
+            currentResults = null;
+            state = matchService.getPlayedRounds() == matchService.getRounds() ? State.FINISHED : State.READY;
+            if (state == State.FINISHED) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Method unregisters pairing metrics of the tournament from JMX. Metrics are still available through getPairingMetrics.
+     */
+    synchronized void close() {
+        matchService.getPairingMetrics().unregister();
+    }
+
+    /**
+     * Standings from the top, by score and tiebreaks. Limit is count of returned players.
+     */
+    public List<Player> getStandings(int limit) {
+        scoresLock.readLock().lock();
+        try {
+            return matchService.getStandings(limit);
+        } finally {
+            scoresLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank of a player by score, players with equal score share the rank.
+     */
+    public int getRank(Player player) {
+        scoresLock.readLock().lock();
+        try {
+            return matchService.getStandingsIndex().rank(player);
+        } finally {
+            scoresLock.readLock().unlock();
+        }
+    }
+
+    public PairingMetrics getPairingMetrics() {
+        return matchService.getPairingMetrics();
+    }
+
+    public synchronized int getPlayerCount() {
+        return matchService.getPlayers().size();
+    }
+
+    /**
+     * Player with given id, null if there is no such player.
+     */
+    public synchronized Player getPlayer(int playerId) {
+        List<Player> players = matchService.getPlayers();
+        return playerId >= 0 && playerId < players.size() ? players.get(playerId) : null;
+    }
+}
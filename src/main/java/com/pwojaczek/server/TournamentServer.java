@@ -0,0 +1,380 @@
+package com.pwojaczek.server;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+import com.pwojaczek.pairing.MatchingPairingEngine;
+import com.pwojaczek.pairing.PairingEngine;
+import com.pwojaczek.pairing.PairingResult;
+import com.pwojaczek.pairing.PairingSystemType;
+import com.pwojaczek.pairing.ParallelGraphPairingEngine;
+import com.pwojaczek.preview.PairingPreview;
+import com.pwojaczek.preview.PreviewScenario;
+import com.pwojaczek.random.RandomStrategy;
+import com.pwojaczek.results.ResultEndpoint;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.pwojaczek.results.ResultEndpoint.*;
+
+/**
+ * HTTP/JSON server hosting many tournaments at once.
+ * POST /tournaments {"rounds": 9, "parallelPairing": false, "pairing": "DUTCH", "seed": 1} creates tournament.
+ * GET /tournaments/{id} returns its state, DELETE /tournaments/{id} removes it with its jobs.
+ * POST /tournaments/{id}/players registers a player name, {"name": ...} object or array of them.
+ * GET /tournaments/{id}/players/{playerId} returns score and rank of a player.
+ * POST /tournaments/{id}/rounds starts pairing job of the next round, GET /jobs/{id} polls the job.
+ * Finished jobs are kept for JOB_TTL_MINUTES, then they are evicted.
+ * GET /tournaments/{id}/rounds/current and POST /tournaments/{id}/results are result entry of ResultEndpoint.
+ * GET /tournaments/{id}/standings?top=K returns standings, GET /tournaments/{id}/metrics returns pairing metrics.
+ * POST /tournaments/{id}/preview pairs the next round for every outcome of boards still without result, GET returns the last preview.
+ * Requests are handled on bounded executor, request over its queue is answered with 503 right on the dispatcher thread.
+ * Pairing jobs run on a separate bounded executor - pairing is never starved by requests and too many jobs are rejected with 503.
+ */
+public class TournamentServer implements AutoCloseable {
+    private static final int DEFAULT_STANDINGS_LIMIT = Integer.MAX_VALUE;
+    private static final long JOB_TTL_MINUTES = 10;
+    private static final long JOB_TTL_NANOS = TimeUnit.MINUTES.toNanos(JOB_TTL_MINUTES);
+
+    private final HttpServer server;
+    private final ThreadLocal<Boolean> rejectedRequest = new ThreadLocal<>();
+    private final ThreadPoolExecutor requestExecutor;
+    private final ThreadPoolExecutor pairingExecutor;
+    private final Map<Long, Tournament> tournaments = new ConcurrentHashMap<>();
+    private final Map<Long, PairingJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong tournamentIds = new AtomicLong();
+    private final AtomicLong jobIds = new AtomicLong();
+    private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+
+    public TournamentServer(int port, int pairingThreads, int pairingQueueSize, int requestThreads, int requestQueueSize) {
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while starting tournament server on port " + port, e);
+        }
+        this.pairingExecutor = new ThreadPoolExecutor(pairingThreads, pairingThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(pairingQueueSize));
+        // Rejected request is run by the dispatcher thread, which only answers it with 503.
+        this.requestExecutor = new ThreadPoolExecutor(requestThreads, requestThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(requestQueueSize), (request, executor) -> {
+            rejectedRequest.set(Boolean.TRUE);
+            try {
+                request.run();
+            } finally {
+                rejectedRequest.remove();
+            }
+        });
+        server.setExecutor(requestExecutor);
+        server.createContext("/tournaments", unlessRejected(this::handleTournaments));
+        server.createContext("/jobs", unlessRejected(this::handleJobs));
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        requestExecutor.shutdown();
+        pairingExecutor.shutdown();
+        tournaments.values().forEach(Tournament::close);
+    }
+
+    /**
+     * Method wraps handler, so request rejected by request executor is answered with 503 instead of being handled.
+     */
+    private HttpHandler unlessRejected(HttpHandler handler) {
+        return exchange -> {
+            if (rejectedRequest.get() != null) {
+                respond(exchange, HTTP_UNAVAILABLE, error("Too many requests, try again later"));
+                return;
+            }
+            handler.handle(exchange);
+        };
+    }
+
+    private void handleTournaments(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        String method = exchange.getRequestMethod();
+        try {
+            if (path.length == 2) {
+                if (method.equals("POST")) {
+                    createTournament(exchange);
+                } else {
+                    respond(exchange, HTTP_BAD_METHOD, error("POST expected"));
+                }
+                return;
+            }
+            Tournament tournament = tournaments.get(Long.parseLong(path[2]));
+            if (tournament == null) {
+                respond(exchange, HTTP_NOT_FOUND, error("No tournament " + path[2]));
+                return;
+            }
+            String resource = path.length > 3 ? path[3] : "";
+            if (resource.isEmpty() && method.equals("GET")) {
+                respond(exchange, HTTP_OK, tournamentJson(tournament).toString());
+            } else if (resource.isEmpty() && method.equals("DELETE")) {
+                removeTournament(exchange, tournament);
+            } else if (resource.equals("players") && path.length == 4 && method.equals("POST")) {
+                registerPlayers(exchange, tournament);
+            } else if (resource.equals("players") && path.length == 5 && method.equals("GET")) {
+                playerStanding(exchange, tournament, Integer.parseInt(path[4]));
+            } else if (resource.equals("rounds") && path.length == 4 && method.equals("POST")) {
+                startPairing(exchange, tournament);
+            } else if (resource.equals("rounds") && path.length == 5 && path[4].equals("current")) {
+                new ResultEndpoint(tournament::getCurrentResults, tournament::submitResult).handleRound(exchange);
+            } else if (resource.equals("results")) {
+                new ResultEndpoint(tournament::getCurrentResults, tournament::submitResult).handleResults(exchange);
+            } else if (resource.equals("standings") && method.equals("GET")) {
+                standings(exchange, tournament);
+            } else if (resource.equals("metrics") && method.equals("GET")) {
+                respond(exchange, HTTP_OK, tournament.getPairingMetrics().toJson().toString());
+            } else if (resource.equals("preview")) {
+                preview(exchange, tournament, method);
+            } else {
+                respond(exchange, HTTP_NOT_FOUND, error("Unknown resource " + exchange.getRequestURI().getPath()));
+            }
+        } catch (IllegalArgumentException | JSONException e) {
+            respond(exchange, HTTP_BAD_REQUEST, error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            respond(exchange, HTTP_CONFLICT, error(e.getMessage()));
+        }
+    }
+
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        if (path.length != 3 || !exchange.getRequestMethod().equals("GET")) {
+            respond(exchange, HTTP_NOT_FOUND, error("GET /jobs/{id} expected"));
+            return;
+        }
+        evictJobs();
+        PairingJob job;
+        try {
+            job = jobs.get(Long.parseLong(path[2]));
+        } catch (NumberFormatException e) {
+            respond(exchange, HTTP_BAD_REQUEST, error(e.getMessage()));
+            return;
+        }
+        if (job == null) {
+            respond(exchange, HTTP_NOT_FOUND, error("No job " + path[2]));
+            return;
+        }
+        respond(exchange, HTTP_OK, jobJson(job));
+    }
+
+    private void createTournament(HttpExchange exchange) throws IOException {
+        Object request = readBody(exchange);
+        if (!(request instanceof JSONObject)) {
+            respond(exchange, HTTP_BAD_REQUEST, error("Tournament object expected"));
+            return;
+        }
+        JSONObject settings = (JSONObject) request;
+        PairingEngine pairingEngine = settings.optBoolean("parallelPairing") ? new ParallelGraphPairingEngine() : new MatchingPairingEngine();
+        PairingSystemType pairingSystemType = PairingSystemType.valueOf(settings.optString("pairing", PairingSystemType.DUTCH.name()));
+        Long seed = settings.has("seed") ? settings.getLong("seed") : null;
+        Tournament tournament = new Tournament(tournamentIds.incrementAndGet(), pairingEngine, pairingSystemType,
+                settings.getInt("rounds"), RandomStrategy.SPLITTABLE.create(seed), pairingExecutor);
+        tournaments.put(tournament.getId(), tournament);
+        respond(exchange, HTTP_CREATED, tournamentJson(tournament).toString());
+    }
+
+    private void registerPlayers(HttpExchange exchange, Tournament tournament) throws IOException {
+        Object request = readBody(exchange);
+        List<String> names = new ArrayList<>();
+        if (request instanceof JSONArray) {
+            for (Object player : (JSONArray) request) {
+                names.add(playerName(player));
+            }
+        } else {
+            names.add(playerName(request));
+        }
+        List<Player> registered = tournament.registerPlayers(names);
+        if (registered == null) {
+            respond(exchange, HTTP_CONFLICT, error("Registration is closed"));
+            return;
+        }
+        JSONArray players = new JSONArray();
+        for (Player player : registered) {
+            players.put(new JSONObject().put("id", player.getId()).put("name", player.getName()));
+        }
+        respond(exchange, HTTP_CREATED, new JSONObject().put("players", players).toString());
+    }
+
+    private static String playerName(Object player) {
+        return player instanceof JSONObject ? ((JSONObject) player).getString("name") : player.toString();
+    }
+
+    private void playerStanding(HttpExchange exchange, Tournament tournament, int playerId) throws IOException {
+        Player player = tournament.getPlayer(playerId);
+        if (player == null) {
+            respond(exchange, HTTP_NOT_FOUND, error("No player " + playerId));
+            return;
+        }
+        JSONObject body = new JSONObject().put("id", player.getId()).put("name", player.getName())
+                .put("score", player.getScore()).put("rank", tournament.getRank(player));
+        respond(exchange, HTTP_OK, body.toString());
+    }
+
+    private void startPairing(HttpExchange exchange, Tournament tournament) throws IOException {
+        PairingJob job;
+        try {
+            job = tournament.startPairing(jobIds.incrementAndGet());
+        } catch (RejectedExecutionException e) {
+            respond(exchange, HTTP_UNAVAILABLE, error("Too many pairing jobs, try again later"));
+            return;
+        }
+        if (job == null) {
+            respond(exchange, HTTP_CONFLICT, error("Tournament is " + tournament.getState() + ", next round can't be paired"));
+            return;
+        }
+        evictJobs();
+        jobs.put(job.getId(), job);
+        respond(exchange, HTTP_ACCEPTED, jobJson(job));
+    }
+
+    /**
+     * Method removes the tournament and its jobs and unregisters its metrics. Running pairing job of the tournament
+     * is finished, but its result is not available anymore.
+     */
+    private void removeTournament(HttpExchange exchange, Tournament tournament) throws IOException {
+        if (tournaments.remove(tournament.getId(), tournament)) {
+            jobs.values().removeIf(job -> job.getTournament() == tournament);
+            tournament.close();
+        }
+        respond(exchange, HTTP_OK, tournamentJson(tournament).toString());
+    }
+
+    /**
+     * Method evicts jobs finished more than JOB_TTL_MINUTES ago. Jobs are scanned at most once in tenth of the TTL.
+     */
+    private void evictJobs() {
+        long now = System.nanoTime();
+        long last = lastEviction.get();
+        if (now - last < JOB_TTL_NANOS / 10 || !lastEviction.compareAndSet(last, now)) {
+            return;
+        }
+        jobs.values().removeIf(job -> job.isExpired(now, JOB_TTL_NANOS));
+    }
+
+    private void preview(HttpExchange exchange, Tournament tournament, String method) throws IOException {
+        PairingPreview preview;
+        if (method.equals("POST")) {
+            preview = tournament.preview();
+        } else if (method.equals("GET")) {
+            preview = tournament.getPreview();
+        } else {
+            respond(exchange, HTTP_BAD_METHOD, error("GET or POST expected"));
+            return;
+        }
+        if (preview == null) {
+            respond(exchange, HTTP_NOT_FOUND, error("No preview of the next round"));
+            return;
+        }
+        StringBuilder body = new StringBuilder(256);
+        body.append("{\"round\":").append(preview.getRound()).append(",\"millis\":").append(preview.getNanos() / 1_000_000)
+                .append(",\"openBoards\":").append(new JSONArray(preview.getOpenBoards())).append(",\"scenarios\":[");
+        List<PreviewScenario> scenarios = preview.getScenarios();
+        for (int i = 0; i < scenarios.size(); i++) {
+            PreviewScenario scenario = scenarios.get(i);
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"outcomes\":{");
+            for (int j = 0; j < preview.getOpenBoards().size(); j++) {
+                int board = preview.getOpenBoards().get(j);
+                if (j > 0) {
+                    body.append(',');
+                }
+                body.append('"').append(board).append("\":\"").append(scenario.getOutcome(board).name()).append('"');
+            }
+            body.append('}');
+            appendPairing(body, scenario.getPairing());
+            body.append('}');
+        }
+        respond(exchange, HTTP_OK, body.append("]}").toString());
+    }
+
+    private void standings(HttpExchange exchange, Tournament tournament) throws IOException {
+        int limit = DEFAULT_STANDINGS_LIMIT;
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null && query.startsWith("top=")) {
+            limit = Integer.parseInt(query.substring("top=".length()));
+        }
+        List<Player> standings = tournament.getStandings(limit);
+        StringBuilder body = new StringBuilder(48 * standings.size() + 64);
+        body.append("{\"playedRounds\":").append(tournament.getPlayedRounds()).append(",\"standings\":[");
+        for (int i = 0; i < standings.size(); i++) {
+            Player player = standings.get(i);
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"rank\":").append(i + 1).append(",\"id\":").append(player.getId())
+                    .append(",\"name\":").append(JSONObject.quote(player.getName())).append(",\"score\":").append(player.getScore()).append('}');
+        }
+        respond(exchange, HTTP_OK, body.append("]}").toString());
+    }
+
+    private static JSONObject tournamentJson(Tournament tournament) {
+        return new JSONObject().put("id", tournament.getId()).put("state", tournament.getState().name())
+                .put("rounds", tournament.getRounds()).put("playedRounds", tournament.getPlayedRounds())
+                .put("players", tournament.getPlayerCount());
+    }
+
+    private static String jobJson(PairingJob job) {
+        StringBuilder body = new StringBuilder(128);
+        body.append("{\"job\":").append(job.getId()).append(",\"tournament\":").append(job.getTournament().getId())
+                .append(",\"round\":").append(job.getRound()).append(",\"status\":\"").append(job.getStatus().name()).append('"');
+        if (job.getStatus() == PairingJob.Status.DONE) {
+            appendPairing(body, job.getResult());
+        } else if (job.getStatus() == PairingJob.Status.FAILED) {
+            body.append(",\"error\":").append(JSONObject.quote(job.getError()));
+        }
+        return body.append('}').toString();
+    }
+
+    /**
+     * Method appends complete flag, pairings by boards and ids of unpaired players to JSON object in body.
+     */
+    private static void appendPairing(StringBuilder body, PairingResult result) {
+        body.append(",\"complete\":").append(result.isComplete()).append(",\"pairings\":[");
+        List<Match> matches = result.getMatches();
+        for (int i = 0; i < matches.size(); i++) {
+            Match match = matches.get(i);
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"board\":").append(i + 1).append(",\"white\":").append(match.getPlayer1().getId());
+            if (match.getPlayer2() != null) {
+                body.append(",\"black\":").append(match.getPlayer2().getId());
+            }
+            body.append('}');
+        }
+        body.append("],\"unpaired\":[");
+        List<Player> unpaired = result.getUnpairedPlayers();
+        for (int i = 0; i < unpaired.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(unpaired.get(i).getId());
+        }
+        body.append(']');
+    }
+}
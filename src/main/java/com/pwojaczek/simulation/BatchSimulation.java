@@ -0,0 +1,122 @@
+package com.pwojaczek.simulation;
+
+import com.pwojaczek.MatchService;
+import com.pwojaczek.Player;
+import com.pwojaczek.TournamentType;
+import com.pwojaczek.outcome.OutcomeModelType;
+import com.pwojaczek.pairing.PairingSystemType;
+import com.pwojaczek.output.NoOpOutputSink;
+import com.pwojaczek.random.RandomSource;
+import com.pwojaczek.random.SplittableRandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many independent tournaments in AUTOMATIC mode on given executor and aggregates their final standings.
+ * Every tournament has its own players, MatchService and random source split from the batch source,
+ * so seedable source gives the same statistics no matter how tournaments are scheduled between threads.
+ * Outcomes are drawn with outcome model, by default every outcome is equally likely. Tournaments are paired
+ * with pairing system of the batch, DUTCH by default.
+ */
+public class BatchSimulation {
+
+    private final List<String> playerNames;
+    private final int[] ratings;
+    private final int rounds;
+    private final ExecutorService executor;
+    private OutcomeModelType outcomeModelType = OutcomeModelType.UNIFORM;
+    private double drawRate = MatchService.DEFAULT_DRAW_RATE;
+    private PairingSystemType pairingSystemType = PairingSystemType.DUTCH;
+
+    public BatchSimulation(List<String> playerNames, int rounds, ExecutorService executor) {
+        this(playerNames, null, rounds, executor);
+    }
+
+    /**
+     * Ratings of players are given in order of player names, null if players are unrated.
+     */
+    public BatchSimulation(List<String> playerNames, int[] ratings, int rounds, ExecutorService executor) {
+        this.playerNames = playerNames;
+        this.ratings = ratings;
+        this.rounds = rounds;
+        this.executor = executor;
+    }
+
+    /**
+     * Sets model of outcomes drawn in every simulated tournament.
+     */
+    public void setOutcomeModel(OutcomeModelType outcomeModelType, double drawRate) {
+        this.outcomeModelType = outcomeModelType;
+        this.drawRate = drawRate;
+    }
+
+    /**
+     * Sets pairing system of every simulated tournament.
+     */
+    public void setPairingSystemType(PairingSystemType pairingSystemType) {
+        this.pairingSystemType = pairingSystemType;
+    }
+
+    public SimulationStatistics run(int tournaments, long seed) {
+        return run(tournaments, new SplittableRandomSource(seed), null);
+    }
+
+    /**
+     * Method simulates given count of tournaments and waits for all of them.
+     * Listener, if given, is notified after every finished tournament.
+     */
+    public SimulationStatistics run(int tournaments, RandomSource random, SimulationListener listener) {
+        if (rounds > pairingSystemType.maxRounds(playerNames.size())) {
+            throw new IllegalArgumentException("Players count is not enough to play a tournament with " + rounds + " rounds"
+                    + " with " + pairingSystemType + " pairing system");
+        }
+        SimulationStatistics statistics = new SimulationStatistics(playerNames, rounds);
+        List<Future<?>> futures = new ArrayList<>(tournaments);
+        for (int i = 0; i < tournaments; i++) {
+            int tournament = i;
+            RandomSource tournamentRandom = random.split();
+            futures.add(executor.submit(() -> {
+                List<Player> standings = simulateTournament(tournamentRandom);
+                statistics.record(standings);
+                if (listener != null) {
+                    listener.tournamentFinished(tournament, standings, statistics);
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Simulation was interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Simulated tournament failed", e.getCause());
+        }
+        return statistics;
+    }
+
+    private List<Player> simulateTournament(RandomSource random) {
+        List<Player> players = new ArrayList<>(playerNames.size());
+        for (String name : playerNames) {
+            Player player = new Player(players.size(), name);
+            if (ratings != null) {
+                player.setRating(ratings[player.getId()]);
+            }
+            players.add(player);
+        }
+        MatchService matchService = new MatchService(rounds, TournamentType.AUTOMATIC, players);
+        matchService.setPairingSystemType(pairingSystemType);
+        matchService.setRandom(random);
+        matchService.setOutcomeModel(outcomeModelType, drawRate);
+        matchService.setOutput(new NoOpOutputSink());
+        matchService.playTournament();
+        return matchService.getStandings();
+    }
+}
@@ -0,0 +1,13 @@
+package com.pwojaczek.simulation;
+
+import com.pwojaczek.Player;
+
+import java.util.List;
+
+public interface SimulationListener {
+
+    /**
+     * Called from simulation thread after tournament finished and its standings were added to statistics.
+     */
+    void tournamentFinished(int tournament, List<Player> standings, SimulationStatistics statistics);
+}
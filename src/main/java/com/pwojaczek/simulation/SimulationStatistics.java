@@ -0,0 +1,105 @@
+package com.pwojaczek.simulation;
+
+import com.pwojaczek.Player;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Standings statistics aggregated over simulated tournaments.
+ * Statistics are updated as soon as a tournament finishes and can be read while simulation is still running.
+ * Players are identified by their ids, which are indexes in the list of player names.
+ */
+public class SimulationStatistics {
+
+    private final List<String> playerNames;
+    private final int scoreSlots;
+    private final AtomicInteger tournaments = new AtomicInteger();
+    private final AtomicLongArray halfPointsSum;
+    private final AtomicLongArray rankSum;
+    private final AtomicLongArray firstPlaces;
+    private final AtomicLongArray scoreDistribution;
+
+    public SimulationStatistics(List<String> playerNames, int rounds) {
+        this.playerNames = playerNames;
+        this.scoreSlots = rounds * 2 + 1;
+        this.halfPointsSum = new AtomicLongArray(playerNames.size());
+        this.rankSum = new AtomicLongArray(playerNames.size());
+        this.firstPlaces = new AtomicLongArray(playerNames.size());
+        this.scoreDistribution = new AtomicLongArray(playerNames.size() * scoreSlots);
+    }
+
+    /**
+     * Method records final standings of one tournament. Standings have to be sorted from the highest score.
+     * Players with equal score share the same rank.
+     */
+    void record(List<Player> standings) {
+        int rank = 1;
+        float topScore = standings.isEmpty() ? 0 : standings.get(0).getScore();
+        for (int i = 0; i < standings.size(); i++) {
+            Player player = standings.get(i);
+            if (i > 0 && player.getScore() < standings.get(i - 1).getScore()) {
+                rank = i + 1;
+            }
+            int id = player.getId();
+            int halfPoints = Math.round(player.getScore() * 2);
+            halfPointsSum.addAndGet(id, halfPoints);
+            rankSum.addAndGet(id, rank);
+            if (player.getScore() == topScore) {
+                firstPlaces.incrementAndGet(id);
+            }
+            scoreDistribution.incrementAndGet(id * scoreSlots + Math.min(halfPoints, scoreSlots - 1));
+        }
+        tournaments.incrementAndGet();
+    }
+
+    public int getTournaments() {
+        return tournaments.get();
+    }
+
+    public List<String> getPlayerNames() {
+        return playerNames;
+    }
+
+    public double getAverageScore(int player) {
+        int count = tournaments.get();
+        return count == 0 ? 0 : halfPointsSum.get(player) / 2.0 / count;
+    }
+
+    public double getAverageRank(int player) {
+        int count = tournaments.get();
+        return count == 0 ? 0 : (double) rankSum.get(player) / count;
+    }
+
+    /**
+     * Returns share of tournaments in which player finished first, alone or with other players on the same score.
+     */
+    public double getFirstPlaceShare(int player) {
+        int count = tournaments.get();
+        return count == 0 ? 0 : (double) firstPlaces.get(player) / count;
+    }
+
+    /**
+     * Returns count of tournaments for every final score of the player. Index of the array is score in half points.
+     */
+    public long[] getScoreDistribution(int player) {
+        long[] distribution = new long[scoreSlots];
+        for (int i = 0; i < scoreSlots; i++) {
+            distribution[i] = scoreDistribution.get(player * scoreSlots + i);
+        }
+        return distribution;
+    }
+
+    /**
+     * Method prints statistics of all players in console.
+     */
+    public void print() {
+        System.out.println("############## SIMULATION OF " + getTournaments() + " TOURNAMENTS ##############");
+        System.out.format("%-32s%10s%10s%10s\n", "Player", "Score", "Rank", "First %");
+        for (int player = 0; player < playerNames.size(); player++) {
+            System.out.format("%-32s%10.2f%10.2f%10.2f\n", playerNames.get(player), getAverageScore(player), getAverageRank(player), getFirstPlaceShare(player) * 100);
+        }
+        System.out.println("####################################################################");
+    }
+}
@@ -0,0 +1,23 @@
+package com.pwojaczek.snapshot;
+
+import com.pwojaczek.TournamentType;
+import com.pwojaczek.eventlog.EventHandler;
+import com.pwojaczek.pairing.PairingSystemType;
+
+/**
+ * Receiver of tournament state read from snapshot. Tournament and its players come first, then rounds
+ * are replayed as events of event log - round which was paired, but has no results yet, is not finished.
+ */
+public interface SnapshotHandler extends EventHandler {
+
+    /**
+     * Tournament type is null, if it was not set when snapshot was written.
+     */
+    void tournament(int rounds, TournamentType tournamentType, PairingSystemType pairingSystemType, int playersCount);
+
+    /**
+     * Players come in order of ids. Score and free point flag are state of the player when snapshot was written.
+     * Rating is Player.NO_RATING for unrated players.
+     */
+    void player(int id, String name, int rating, float score, boolean freePoint);
+}
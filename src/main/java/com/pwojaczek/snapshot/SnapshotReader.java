@@ -0,0 +1,111 @@
+package com.pwojaczek.snapshot;
+
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+import com.pwojaczek.TournamentType;
+import com.pwojaczek.pairing.PairingSystemType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reader of snapshot written by SnapshotWriter. Snapshot file is memory mapped, its checksum is counted
+ * over the mapped file and records are decoded straight from the mapping - only names of players are copied.
+ */
+public class SnapshotReader {
+    private static final OutcomeEnum[] OUTCOMES = OutcomeEnum.values();
+    private static final TournamentType[] TOURNAMENT_TYPES = TournamentType.values();
+    private static final PairingSystemType[] PAIRING_SYSTEM_TYPES = PairingSystemType.values();
+
+    /**
+     * Method reads snapshot and passes tournament, players and rounds to the handler.
+     * Snapshot with wrong checksum or unknown version is rejected before anything is passed to the handler.
+     */
+    public void read(Path path, SnapshotHandler handler) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < SnapshotWriter.HEADER_SIZE + Integer.BYTES || buffer.getInt(0) != SnapshotWriter.MAGIC) {
+                throw new RuntimeException("File " + path + " is not a tournament snapshot");
+            }
+            int version = buffer.getInt(Integer.BYTES);
+            if (version < SnapshotWriter.MIN_VERSION || version > SnapshotWriter.VERSION) {
+                throw new RuntimeException("Unsupported snapshot version " + version);
+            }
+            int bodySize = buffer.limit() - Integer.BYTES;
+            ByteBuffer body = buffer.duplicate();
+            body.limit(bodySize);
+            CRC32 checksum = new CRC32();
+            checksum.update(body);
+            if ((int) checksum.getValue() != buffer.getInt(bodySize)) {
+                throw new RuntimeException("Snapshot " + path + " is corrupted, its checksum doesn't match");
+            }
+            buffer.position(2 * Integer.BYTES).limit(bodySize);
+            readTournament(buffer, version, handler);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new RuntimeException("Snapshot " + path + " is truncated", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while reading snapshot", e);
+        }
+    }
+
+    private void readTournament(ByteBuffer buffer, int version, SnapshotHandler handler) {
+        int rounds = buffer.getInt();
+        byte tournamentType = buffer.get();
+        PairingSystemType pairingSystemType = PAIRING_SYSTEM_TYPES[buffer.get()];
+        int playersCount = buffer.getInt();
+        int roundsCount = buffer.getInt();
+        handler.tournament(rounds, tournamentType == SnapshotWriter.NO_TYPE ? null : TOURNAMENT_TYPES[tournamentType],
+                pairingSystemType, playersCount);
+
+        byte[] name = new byte[64];
+        for (int id = 0; id < playersCount; id++) {
+            float score = buffer.getInt() / 2f;
+            boolean freePoint = (buffer.get() & SnapshotWriter.FREE_POINT_FLAG) != 0;
+            int rating = version > 1 ? buffer.getInt() : Player.NO_RATING;
+            int nameLength = buffer.getInt();
+            if (nameLength > name.length) {
+                name = new byte[Math.max(nameLength, name.length * 2)];
+            }
+            buffer.get(name, 0, nameLength);
+            handler.player(id, new String(name, 0, nameLength, StandardCharsets.UTF_8), rating, score, freePoint);
+        }
+
+        for (int round = 1; round <= roundsCount; round++) {
+            int matchesCount = buffer.getInt();
+            boolean finished = buffer.get() != 0;
+            int matchesStart = buffer.position();
+            for (int board = 0; board < matchesCount; board++) {
+                int whitePlayer = buffer.getInt();
+                int blackPlayer = buffer.getInt();
+                buffer.get();
+                if (blackPlayer == SnapshotWriter.NO_PLAYER) {
+                    handler.freePoint(round, whitePlayer);
+                } else {
+                    handler.pairing(round, whitePlayer, blackPlayer);
+                }
+            }
+            handler.pairingFinished(round, matchesCount);
+            // Results follow pairing of the whole round, as in event log.
+            for (int board = 0; board < matchesCount; board++) {
+                byte outcome = buffer.get(matchesStart + board * SnapshotWriter.MATCH_SIZE + 2 * Integer.BYTES);
+                if (outcome != SnapshotWriter.NO_OUTCOME && OUTCOMES[outcome] != OutcomeEnum.FREE_POINT) {
+                    handler.result(round, board, OUTCOMES[outcome]);
+                }
+            }
+            if (finished) {
+                handler.roundFinished(round);
+            }
+        }
+        if (buffer.hasRemaining()) {
+            throw new RuntimeException("Snapshot has " + buffer.remaining() + " unexpected bytes after the last round");
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.pwojaczek.snapshot;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+import com.pwojaczek.TournamentType;
+import com.pwojaczek.pairing.PairingSystemType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Writer of compact binary snapshot of a tournament. Snapshot starts with header (magic, version, rounds, tournament type,
+ * pairing system, players count, count of rounds in snapshot), followed by players (score in half points, flags,
+ * rating and UTF-8 name) and rounds (matches count, finished flag and matches). Match is stored once, as ids of white
+ * and black player and outcome, so histories of players are rebuilt without object graph. Snapshot ends with CRC32
+ * of everything before it. All numbers are big-endian.
+ * Snapshot is written through reused direct buffer to temporary file, which replaces the target only when it's complete,
+ * so previous snapshot survives a crash during write.
+ */
+public class SnapshotWriter implements AutoCloseable {
+    static final int MAGIC = 0x53434853;
+    static final int VERSION = 2;
+    // Version 1 had no ratings of players.
+    static final int MIN_VERSION = 1;
+    static final int HEADER_SIZE = 5 * Integer.BYTES + 2;
+    static final int PLAYER_SIZE = Integer.BYTES + 1 + 2 * Integer.BYTES;
+    static final int ROUND_SIZE = Integer.BYTES + 1;
+    static final int MATCH_SIZE = 2 * Integer.BYTES + 1;
+    static final int NO_PLAYER = -1;
+    static final byte NO_OUTCOME = -1;
+    static final byte NO_TYPE = -1;
+    static final byte FREE_POINT_FLAG = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final Path temporaryPath;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32 checksum = new CRC32();
+    private boolean complete;
+
+    public SnapshotWriter(Path path) {
+        this.path = path;
+        this.temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            this.channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while creating snapshot", e);
+        }
+    }
+
+    /**
+     * Method writes snapshot of a whole tournament - finished rounds and the paired round waiting for results, if there is one.
+     * Ids of players have to be their indexes in the list.
+     */
+    public static void write(Path path, int rounds, TournamentType tournamentType, PairingSystemType pairingSystemType,
+                             List<Player> players, List<List<Match>> finishedRounds, List<Match> pendingMatches) {
+        try (SnapshotWriter writer = new SnapshotWriter(path)) {
+            writer.header(rounds, tournamentType, pairingSystemType, players.size(), finishedRounds.size() + (pendingMatches == null ? 0 : 1));
+            for (int id = 0; id < players.size(); id++) {
+                writer.player(id, players.get(id));
+            }
+            for (List<Match> matches : finishedRounds) {
+                writer.round(matches, true);
+            }
+            if (pendingMatches != null) {
+                writer.round(pendingMatches, false);
+            }
+            writer.complete();
+        }
+    }
+
+    public void header(int rounds, TournamentType tournamentType, PairingSystemType pairingSystemType, int playersCount, int roundsCount) {
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(rounds)
+                .put(tournamentType == null ? NO_TYPE : (byte) tournamentType.ordinal())
+                .put((byte) pairingSystemType.ordinal())
+                .putInt(playersCount).putInt(roundsCount);
+    }
+
+    public void player(int id, Player player) {
+        if (player.getId() != id) {
+            throw new RuntimeException("Player " + player.getName() + " has id " + player.getId() + " instead of " + id);
+        }
+        byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+        ensureRemaining(PLAYER_SIZE);
+        buffer.putInt(Math.round(player.getScore() * 2))
+                .put(player.receivedFreePoint() ? FREE_POINT_FLAG : 0)
+                .putInt(player.getRating())
+                .putInt(name.length);
+        for (int offset = 0; offset < name.length; ) {
+            ensureRemaining(1);
+            int length = Math.min(buffer.remaining(), name.length - offset);
+            buffer.put(name, offset, length);
+            offset += length;
+        }
+    }
+
+    public void round(List<Match> matches, boolean finished) {
+        ensureRemaining(ROUND_SIZE);
+        buffer.putInt(matches.size()).put((byte) (finished ? 1 : 0));
+        for (Match match : matches) {
+            ensureRemaining(MATCH_SIZE);
+            OutcomeEnum outcome = match.getOutcome();
+            buffer.putInt(match.getPlayer1().getId())
+                    .putInt(match.getPlayer2() == null ? NO_PLAYER : match.getPlayer2().getId())
+                    .put(outcome == null ? NO_OUTCOME : (byte) outcome.ordinal());
+        }
+    }
+
+    /**
+     * Method marks snapshot as complete - closing writer then adds checksum and replaces the target file.
+     * Snapshot which is not complete is dropped on close.
+     */
+    public void complete() {
+        complete = true;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (complete) {
+                writeBuffer();
+                buffer.putInt((int) checksum.getValue());
+                writeBuffer();
+                channel.force(false);
+            }
+            channel.close();
+            if (complete) {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(temporaryPath);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing snapshot", e);
+        }
+    }
+
+    private void ensureRemaining(int size) {
+        if (buffer.remaining() < size) {
+            writeBuffer();
+        }
+    }
+
+    private void writeBuffer() {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing snapshot", e);
+        }
+        buffer.clear();
+    }
+}
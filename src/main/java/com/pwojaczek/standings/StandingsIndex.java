@@ -0,0 +1,237 @@
+package com.pwojaczek.standings;
+
+import com.pwojaczek.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Index of players by score, updated with every recorded result instead of sorting the field again.
+ * Players are kept in score buckets by half points - every bucket is a bitset of player ids, so players
+ * of a score group come out in order of their ids. Sizes of buckets are kept in Fenwick tree,
+ * so rank of a player is counted in O(log n) of buckets.
+ * Index is not thread-safe, queries done while results come in must be synchronized with updates.
+ */
+public class StandingsIndex {
+    private static final int INITIAL_BUCKETS = 32;
+
+    private final Player[] players;
+    private final int[] bucketOf;
+    private final int words;
+    private long[][] buckets = new long[INITIAL_BUCKETS][];
+    private int[] bucketSizes = new int[INITIAL_BUCKETS];
+    private int[] tree = new int[INITIAL_BUCKETS + 1];
+    private int size;
+
+    public StandingsIndex(List<Player> players) {
+        int capacity = 0;
+        for (Player player : players) {
+            capacity = Math.max(capacity, player.getId() + 1);
+        }
+        this.players = new Player[capacity];
+        this.bucketOf = new int[capacity];
+        this.words = (capacity + 63) >>> 6;
+        Arrays.fill(bucketOf, -1);
+        for (Player player : players) {
+            this.players[player.getId()] = player;
+            add(player.getId(), halfPoints(player));
+        }
+    }
+
+    /**
+     * Method moves player to score bucket of his current score.
+     */
+    public void update(Player player) {
+        int id = player.getId();
+        int bucket = halfPoints(player);
+        if (bucketOf[id] != bucket) {
+            remove(id);
+            add(id, bucket);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rank of a player by score - players with equal score share the rank.
+     */
+    public int rank(Player player) {
+        return size - countUpTo(bucketOf[player.getId()]) + 1;
+    }
+
+    /**
+     * Players with given score, in order of ids.
+     */
+    public List<Player> scoreGroup(float score) {
+        List<Player> group = new ArrayList<>();
+        int bucket = Math.round(score * 2);
+        if (bucket < buckets.length) {
+            collect(bucket, group, Integer.MAX_VALUE);
+        }
+        return group;
+    }
+
+    /**
+     * K players with the highest scores, score groups in order of ids.
+     */
+    public List<Player> top(int k) {
+        List<Player> top = new ArrayList<>(Math.min(k, size));
+        for (int bucket = buckets.length - 1; bucket >= 0 && top.size() < k; bucket--) {
+            collect(bucket, top, k);
+        }
+        return top;
+    }
+
+    /**
+     * All players from the highest score, score groups in order of ids. This is order in which players are paired.
+     */
+    public List<Player> ordered() {
+        return top(size);
+    }
+
+    /**
+     * All players from the highest score, players of every score group sorted with given comparator.
+     */
+    public List<Player> ranking(Comparator<Player> comparator) {
+        return ranking(comparator, size);
+    }
+
+    /**
+     * Limit players from the highest score, players of every score group sorted with given comparator.
+     * Only score groups above the limit are sorted, from the score group crossing it only the best players
+     * are selected with heap bounded by count of missing players.
+     */
+    public List<Player> ranking(Comparator<Player> comparator, int limit) {
+        List<Player> ranking = new ArrayList<>(Math.min(limit, size));
+        for (int bucket = buckets.length - 1; bucket >= 0 && ranking.size() < limit; bucket--) {
+            int from = ranking.size();
+            int missing = limit - from;
+            if (bucketSizes[bucket] <= missing) {
+                collect(bucket, ranking, Integer.MAX_VALUE);
+                if (ranking.size() - from > 1) {
+                    ranking.subList(from, ranking.size()).sort(comparator);
+                }
+                continue;
+            }
+            List<Player> group = new ArrayList<>(bucketSizes[bucket]);
+            collect(bucket, group, Integer.MAX_VALUE);
+            // Players equal by comparator stay in order of ids, as in stable sort of the whole score group.
+            Comparator<Player> byIds = comparator.thenComparingInt(Player::getId);
+            PriorityQueue<Player> best = new PriorityQueue<>(missing + 1, byIds.reversed());
+            for (Player player : group) {
+                best.add(player);
+                if (best.size() > missing) {
+                    best.poll();
+                }
+            }
+            ranking.addAll(best);
+            ranking.subList(from, ranking.size()).sort(byIds);
+        }
+        return ranking;
+    }
+
+    /**
+     * Player with the lowest score, who didn't receive free point yet. Lower id goes first among equal scores.
+     */
+    public Player lowestWithoutFreePoint() {
+        return lowestWithoutFreePoint(false);
+    }
+
+    /**
+     * Player with the lowest score, who didn't receive free point yet. Among equal scores higher id goes first,
+     * if lowestSeedFirst is set - ids are seeds, so the lowest seed gets free point - otherwise lower id goes first.
+     */
+    public Player lowestWithoutFreePoint(boolean lowestSeedFirst) {
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            if (bucketSizes[bucket] == 0) {
+                continue;
+            }
+            long[] bits = buckets[bucket];
+            for (int i = 0; i < words; i++) {
+                int word = lowestSeedFirst ? words - 1 - i : i;
+                for (long remaining = bits[word]; remaining != 0; ) {
+                    int bit = lowestSeedFirst ? 63 - Long.numberOfLeadingZeros(remaining) : Long.numberOfTrailingZeros(remaining);
+                    remaining &= ~(1L << bit);
+                    Player player = players[(word << 6) + bit];
+                    if (!player.receivedFreePoint()) {
+                        return player;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void collect(int bucket, List<Player> target, int limit) {
+        if (bucketSizes[bucket] == 0) {
+            return;
+        }
+        long[] bits = buckets[bucket];
+        for (int word = 0; word < words && target.size() < limit; word++) {
+            for (long remaining = bits[word]; remaining != 0 && target.size() < limit; remaining &= remaining - 1) {
+                target.add(players[(word << 6) + Long.numberOfTrailingZeros(remaining)]);
+            }
+        }
+    }
+
+    private void add(int id, int bucket) {
+        if (bucket >= buckets.length) {
+            growBuckets(bucket + 1);
+        }
+        if (buckets[bucket] == null) {
+            buckets[bucket] = new long[words];
+        }
+        buckets[bucket][id >>> 6] |= 1L << id;
+        bucketSizes[bucket]++;
+        bucketOf[id] = bucket;
+        size++;
+        for (int i = bucket + 1; i < tree.length; i += i & -i) {
+            tree[i]++;
+        }
+    }
+
+    private void remove(int id) {
+        int bucket = bucketOf[id];
+        buckets[bucket][id >>> 6] &= ~(1L << id);
+        bucketSizes[bucket]--;
+        size--;
+        for (int i = bucket + 1; i < tree.length; i += i & -i) {
+            tree[i]--;
+        }
+    }
+
+    /**
+     * Count of players in buckets from 0 to given bucket, both included.
+     */
+    private int countUpTo(int bucket) {
+        int count = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private void growBuckets(int minimum) {
+        int capacity = Math.max(buckets.length * 2, minimum);
+        buckets = Arrays.copyOf(buckets, capacity);
+        bucketSizes = Arrays.copyOf(bucketSizes, capacity);
+        tree = new int[capacity + 1];
+        for (int bucket = 0; bucket < capacity; bucket++) {
+            if (bucketSizes[bucket] == 0) {
+                continue;
+            }
+            for (int i = bucket + 1; i < tree.length; i += i & -i) {
+                tree[i] += bucketSizes[bucket];
+            }
+        }
+    }
+
+    private static int halfPoints(Player player) {
+        return Math.round(player.getScore() * 2);
+    }
+}
@@ -0,0 +1,415 @@
+package com.pwojaczek.store;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tournament state kept in primitive arrays indexed by player id, for fields too big for Player and Match objects.
+ * Scores are kept as half points, colors as bits (bit n is set if player had white in his n-th game)
+ * and every match is an entry of packed match log. Semantics follow Player, Match and MatchService:
+ * free points are not part of player's game history and give one point.
+ * Code reading players through Player API, like pairing engines, can work on this state through PlayerView and MatchView.
+ * Views are flyweights - one per player and match, created on the first access and cached. Pairs of players who met
+ * are kept in open addressing table, so checking a rematch takes constant time.
+ * MatchService keeps its players here when it's switched to compact state. Matches are then added to histories
+ * of players through Player API and replaced by their views, so outcomes are set straight to the match log.
+ * Every player can play at most MAX_GAMES games, as colors of his games are bits of one long.
+ */
+public class CompactTournamentState {
+    public static final int NO_PLAYER = -1;
+
+    public static final int MAX_GAMES = Long.SIZE;
+    private static final int INITIAL_MATCHES = 64;
+    private static final byte NO_OUTCOME = 0;
+    private static final byte OUTCOME_MASK = 0b0111;
+    private static final byte SCORED = 0b1000;
+    private static final OutcomeEnum[] OUTCOMES = OutcomeEnum.values();
+    private static final long NO_PAIR = 0;
+
+    private final Map<String, String> namePool = new HashMap<>();
+    private int playerCount;
+    private String[] names;
+    private int[] halfPoints;
+    private long[] freePoints;
+    private long[] colors;
+    private int[] gamesPlayed;
+    private int gamesPerPlayer;
+    private int[] playerGames;
+
+    private int matchCount;
+    private int[] matchPlayers;
+    private byte[] matchFlags;
+
+    private long[] pairs = new long[INITIAL_MATCHES * 2];
+    private int pairCount;
+    private PlayerView[] playerViews;
+    private MatchView[] matchViews = new MatchView[INITIAL_MATCHES];
+
+    /**
+     * Creates state for given count of players and rounds. Throws IllegalArgumentException for more than MAX_GAMES rounds.
+     */
+    public CompactTournamentState(int playerCapacity, int rounds) {
+        if (rounds > MAX_GAMES) {
+            throw new IllegalArgumentException("Compact state can't keep more than " + MAX_GAMES + " rounds, there are " + rounds);
+        }
+        int capacity = Math.max(playerCapacity, 1);
+        this.gamesPerPlayer = Math.max(rounds, 1);
+        this.names = new String[capacity];
+        this.halfPoints = new int[capacity];
+        this.freePoints = new long[(capacity + 63) >>> 6];
+        this.colors = new long[capacity];
+        this.gamesPlayed = new int[capacity];
+        this.playerGames = new int[capacity * gamesPerPlayer];
+        this.playerViews = new PlayerView[capacity];
+        this.matchPlayers = new int[INITIAL_MATCHES * 2];
+        this.matchFlags = new byte[INITIAL_MATCHES];
+    }
+
+    /**
+     * Method registers player and returns his id. Equal names share one String instance.
+     */
+    public int addPlayer(String name) {
+        if (playerCount == names.length) {
+            growPlayers();
+        }
+        int id = playerCount++;
+        String pooled = namePool.get(name);
+        if (pooled == null) {
+            pooled = name;
+            namePool.put(name, name);
+        }
+        names[id] = pooled;
+        return id;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public String getName(int player) {
+        return names[player];
+    }
+
+    public void setName(int player, String name) {
+        names[player] = name;
+    }
+
+    public int getHalfPoints(int player) {
+        return halfPoints[player];
+    }
+
+    public float getScore(int player) {
+        return halfPoints[player] / 2f;
+    }
+
+    public void setScore(int player, float score) {
+        halfPoints[player] = Math.round(score * 2);
+    }
+
+    public boolean receivedFreePoint(int player) {
+        return (freePoints[player >>> 6] & (1L << player)) != 0;
+    }
+
+    public void setFreePoint(int player, boolean freePoint) {
+        if (freePoint) {
+            freePoints[player >>> 6] |= 1L << player;
+        } else {
+            freePoints[player >>> 6] &= ~(1L << player);
+        }
+    }
+
+    public int getGamesPlayed(int player) {
+        return gamesPlayed[player];
+    }
+
+    public int getWhiteCount(int player) {
+        return Long.bitCount(colors[player]);
+    }
+
+    /**
+     * Colors of last two games as bitmask, the same as Player.getLastColors().
+     */
+    public int getLastColors(int player) {
+        int games = gamesPlayed[player];
+        int lastColors = 0;
+        for (int i = Math.max(0, games - 2); i < games; i++) {
+            lastColors = (lastColors << 1) | (int) ((colors[player] >>> i) & 1);
+        }
+        return lastColors;
+    }
+
+    public boolean playedWith(int player, int opponent) {
+        long key = pairKey(player, opponent);
+        int mask = pairs.length - 1;
+        for (int index = hash(key) & mask; pairs[index] != NO_PAIR; index = (index + 1) & mask) {
+            if (pairs[index] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns index of n-th game of the player in match log.
+     */
+    public int getGame(int player, int game) {
+        return playerGames[player * gamesPerPlayer + game];
+    }
+
+    /**
+     * Method adds match of two players to match log and to history of both players.
+     */
+    public int addMatch(int white, int black) {
+        int match = appendMatch(white, black, NO_OUTCOME);
+        addGame(white, match);
+        addGame(black, match);
+        return match;
+    }
+
+    /**
+     * Method adds free point match to match log. As in MatchService, free point is not part of player's history.
+     */
+    public int addFreePoint(int player) {
+        setFreePoint(player, true);
+        return appendMatch(player, NO_PLAYER, (byte) (OutcomeEnum.FREE_POINT.ordinal() + 1));
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    public int getWhite(int match) {
+        return matchPlayers[match * 2];
+    }
+
+    /**
+     * Returns black player of the match or NO_PLAYER for free point.
+     */
+    public int getBlack(int match) {
+        return matchPlayers[match * 2 + 1];
+    }
+
+    public OutcomeEnum getOutcome(int match) {
+        int outcome = matchFlags[match] & OUTCOME_MASK;
+        return outcome == NO_OUTCOME ? null : OUTCOMES[outcome - 1];
+    }
+
+    public void setOutcome(int match, OutcomeEnum outcome) {
+        int flags = matchFlags[match] & SCORED;
+        matchFlags[match] = (byte) (outcome == null ? flags : flags | (outcome.ordinal() + 1));
+    }
+
+    public boolean isScored(int match) {
+        return (matchFlags[match] & SCORED) != 0;
+    }
+
+    /**
+     * Method appends points for match outcome, the same way as MatchService does for Match objects.
+     */
+    public void appendPoints(int match) {
+        OutcomeEnum outcome = getOutcome(match);
+        int white = getWhite(match);
+        int black = getBlack(match);
+        if (outcome == OutcomeEnum.FREE_POINT || outcome == OutcomeEnum.WIN) {
+            halfPoints[white] += 2;
+        } else if (outcome == OutcomeEnum.DRAW) {
+            halfPoints[white]++;
+            halfPoints[black]++;
+        } else if (outcome == OutcomeEnum.LOSS) {
+            halfPoints[black] += 2;
+        }
+        matchFlags[match] |= SCORED;
+    }
+
+    /**
+     * Points given through Player API. The first points given after a game mark it scored, two points given
+     * when the last game is already scored are a free point. Outcome of the game has to be set before its points,
+     * it's never derived from them. Throws IllegalStateException for game without outcome.
+     */
+    void appendPlayerPoints(int player, int points) {
+        int games = gamesPlayed[player];
+        int lastGame = games == 0 ? NO_PLAYER : getGame(player, games - 1);
+        if (lastGame != NO_PLAYER && !isScored(lastGame)) {
+            if (getOutcome(lastGame) == null) {
+                throw new IllegalStateException("Game " + names[getWhite(lastGame)] + " - " + names[getBlack(lastGame)]
+                        + " has no outcome, points can't be given for it");
+            }
+            matchFlags[lastGame] |= SCORED;
+        } else if (points == 2) {
+            int freePoint = appendMatch(player, NO_PLAYER, (byte) (OutcomeEnum.FREE_POINT.ordinal() + 1));
+            matchFlags[freePoint] |= SCORED;
+        }
+        halfPoints[player] += points;
+    }
+
+    /**
+     * Links existing match of opponent with player or creates new match in the log.
+     * Used when the same match is added to history of both players one by one.
+     */
+    int addPlayerMatch(int player, int opponent, boolean white, OutcomeEnum outcome) {
+        int opponentGames = gamesPlayed[opponent];
+        if (opponentGames > 0) {
+            int match = getGame(opponent, opponentGames - 1);
+            int playerGames = gamesPlayed[player];
+            // Match added after the last game of the player can't be linked with him yet.
+            boolean linked = playerGames > 0 && getGame(player, playerGames - 1) >= match;
+            if (!linked && getWhite(match) == (white ? player : opponent) && getBlack(match) == (white ? opponent : player)) {
+                addGame(player, match);
+                return match;
+            }
+        }
+        int match = appendMatch(white ? player : opponent, white ? opponent : player, NO_OUTCOME);
+        setOutcome(match, outcome);
+        addGame(player, match);
+        return match;
+    }
+
+    /**
+     * Returns list of players backed by this state, views are created on the first access and reused.
+     */
+    public List<Player> players() {
+        return new AbstractList<Player>() {
+            @Override
+            public Player get(int index) {
+                return player(index);
+            }
+
+            @Override
+            public int size() {
+                return playerCount;
+            }
+        };
+    }
+
+    public PlayerView player(int id) {
+        if (id < 0 || id >= playerCount) {
+            throw new IndexOutOfBoundsException("No player with id " + id);
+        }
+        PlayerView view = playerViews[id];
+        if (view == null) {
+            view = new PlayerView(this, id);
+            playerViews[id] = view;
+        }
+        return view;
+    }
+
+    /**
+     * View of match added to histories of both its players through Player API - the last game of its white player.
+     */
+    public MatchView match(Match match) {
+        int white = match.getPlayer1().getId();
+        int games = gamesPlayed[white];
+        if (games == 0) {
+            throw new IllegalArgumentException("Match of " + names[white] + " is not in the state");
+        }
+        return match(getGame(white, games - 1));
+    }
+
+    public MatchView match(int match) {
+        if (match < 0 || match >= matchCount) {
+            throw new IndexOutOfBoundsException("No match with index " + match);
+        }
+        if (match >= matchViews.length) {
+            matchViews = Arrays.copyOf(matchViews, Math.max(matchViews.length * 2, match + 1));
+        }
+        MatchView view = matchViews[match];
+        if (view == null) {
+            view = new MatchView(this, match);
+            matchViews[match] = view;
+        }
+        return view;
+    }
+
+    private int appendMatch(int white, int black, byte flags) {
+        if (matchCount == matchFlags.length) {
+            matchFlags = Arrays.copyOf(matchFlags, matchFlags.length * 2);
+            matchPlayers = Arrays.copyOf(matchPlayers, matchPlayers.length * 2);
+        }
+        int match = matchCount++;
+        matchPlayers[match * 2] = white;
+        matchPlayers[match * 2 + 1] = black;
+        matchFlags[match] = flags;
+        if (black != NO_PLAYER) {
+            addPair(pairKey(white, black));
+        }
+        return match;
+    }
+
+    /**
+     * Key of unordered pair of players, never equal to NO_PAIR.
+     */
+    private static long pairKey(int player1, int player2) {
+        return ((long) (Math.min(player1, player2) + 1) << 32) | (Math.max(player1, player2) + 1);
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private void addPair(long key) {
+        if ((pairCount + 1) * 2 > pairs.length) {
+            long[] oldPairs = pairs;
+            pairs = new long[oldPairs.length * 2];
+            pairCount = 0;
+            for (long oldKey : oldPairs) {
+                if (oldKey != NO_PAIR) {
+                    addPair(oldKey);
+                }
+            }
+        }
+        int mask = pairs.length - 1;
+        int index = hash(key) & mask;
+        while (pairs[index] != NO_PAIR) {
+            if (pairs[index] == key) {
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        pairs[index] = key;
+        pairCount++;
+    }
+
+    private void addGame(int player, int match) {
+        int game = gamesPlayed[player];
+        if (game == MAX_GAMES) {
+            throw new IllegalStateException("Player " + names[player] + " can't play more than " + MAX_GAMES + " games");
+        }
+        if (game == gamesPerPlayer) {
+            growGames();
+        }
+        playerGames[player * gamesPerPlayer + game] = match;
+        if (getWhite(match) == player) {
+            colors[player] |= 1L << game;
+        }
+        gamesPlayed[player] = game + 1;
+    }
+
+    private void growPlayers() {
+        int capacity = names.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        playerViews = Arrays.copyOf(playerViews, capacity);
+        halfPoints = Arrays.copyOf(halfPoints, capacity);
+        freePoints = Arrays.copyOf(freePoints, (capacity + 63) >>> 6);
+        colors = Arrays.copyOf(colors, capacity);
+        gamesPlayed = Arrays.copyOf(gamesPlayed, capacity);
+        playerGames = Arrays.copyOf(playerGames, capacity * gamesPerPlayer);
+    }
+
+    private void growGames() {
+        int newGamesPerPlayer = Math.min(gamesPerPlayer * 2, MAX_GAMES);
+        int[] newPlayerGames = new int[names.length * newGamesPerPlayer];
+        for (int player = 0; player < playerCount; player++) {
+            System.arraycopy(playerGames, player * gamesPerPlayer, newPlayerGames, player * newGamesPerPlayer, gamesPlayed[player]);
+        }
+        playerGames = newPlayerGames;
+        gamesPerPlayer = newGamesPerPlayer;
+    }
+}
@@ -0,0 +1,75 @@
+package com.pwojaczek.store;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+
+/**
+ * Match backed by entry of CompactTournamentState match log.
+ */
+public class MatchView extends Match {
+
+    private final CompactTournamentState state;
+    private final int index;
+
+    MatchView(CompactTournamentState state, int index) {
+        super(null, (Player) null);
+        this.state = state;
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public Player getPlayer1() {
+        return state.player(state.getWhite(index));
+    }
+
+    @Override
+    public void setPlayer1(Player player1) {
+        throw new UnsupportedOperationException("Players of match in compact state can't be changed");
+    }
+
+    /**
+     * Returns black player or null for free point.
+     */
+    @Override
+    public Player getPlayer2() {
+        int black = state.getBlack(index);
+        return black == CompactTournamentState.NO_PLAYER ? null : state.player(black);
+    }
+
+    @Override
+    public void setPlayer2(Player player2) {
+        throw new UnsupportedOperationException("Players of match in compact state can't be changed");
+    }
+
+    @Override
+    public OutcomeEnum getOutcome() {
+        return state.getOutcome(index);
+    }
+
+    @Override
+    public void setOutcome(OutcomeEnum outcome) {
+        state.setOutcome(index, outcome);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MatchView)) {
+            return false;
+        }
+        MatchView that = (MatchView) o;
+        return state == that.state && index == that.index;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
+}
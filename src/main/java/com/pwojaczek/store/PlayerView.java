@@ -0,0 +1,150 @@
+package com.pwojaczek.store;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.Player;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Player backed by CompactTournamentState. All reads and writes go to the state, view itself holds only id,
+ * without history or opponents of Player. State keeps one view per player, so views can be compared by identity.
+ */
+public class PlayerView extends Player {
+
+    private final CompactTournamentState state;
+
+    PlayerView(CompactTournamentState state, int id) {
+        super(id);
+        this.state = state;
+    }
+
+    @Override
+    public String getName() {
+        return state.getName(getId());
+    }
+
+    @Override
+    public void setName(String name) {
+        state.setName(getId(), name);
+    }
+
+    @Override
+    public boolean receivedFreePoint() {
+        return state.receivedFreePoint(getId());
+    }
+
+    @Override
+    public void setFreePoint(boolean freePoint) {
+        state.setFreePoint(getId(), freePoint);
+    }
+
+    @Override
+    public float getScore() {
+        return state.getScore(getId());
+    }
+
+    @Override
+    public void setScore(float score) {
+        state.setScore(getId(), score);
+    }
+
+    /**
+     * Returns read-only history of played games.
+     */
+    @Override
+    public List<Match> getMatchHistory() {
+        int id = getId();
+        return new AbstractList<Match>() {
+            @Override
+            public Match get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("No game with index " + index);
+                }
+                return state.match(state.getGame(id, index));
+            }
+
+            @Override
+            public int size() {
+                return state.getGamesPlayed(id);
+            }
+        };
+    }
+
+    @Override
+    public void setMatchHistory(List<Match> matchHistory) {
+        throw new UnsupportedOperationException("History of compact state can only be appended with addMatch");
+    }
+
+    @Override
+    public int getGamesPlayed() {
+        return state.getGamesPlayed(getId());
+    }
+
+    @Override
+    public int getWhiteCount() {
+        return state.getWhiteCount(getId());
+    }
+
+    @Override
+    public int getLastColors() {
+        return state.getLastColors(getId());
+    }
+
+    @Override
+    public void draw() {
+        state.appendPlayerPoints(getId(), 1);
+    }
+
+    @Override
+    public void win() {
+        state.appendPlayerPoints(getId(), 2);
+    }
+
+    @Override
+    public boolean playedWith(Player player) {
+        return state.playedWith(getId(), player.getId());
+    }
+
+    /**
+     * Adds match to the state. Match created outside of the state is added to the match log once,
+     * when both of its players add it.
+     */
+    @Override
+    public void addMatch(Match match) {
+        if (match instanceof MatchView) {
+            throw new IllegalArgumentException("Match is already part of the state");
+        }
+        boolean white = match.getPlayer1().getId() == getId();
+        Player opponent = white ? match.getPlayer2() : match.getPlayer1();
+        if (opponent == null) {
+            return;
+        }
+        state.addPlayerMatch(getId(), opponent.getId(), white, match.getOutcome());
+    }
+
+    @Override
+    public List<Player> getPlayersPlayed() {
+        return getMatchHistory().stream()
+                .map(match -> match.getPlayer1().getId() == getId() ? match.getPlayer2() : match.getPlayer1())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PlayerView)) {
+            return false;
+        }
+        PlayerView that = (PlayerView) o;
+        return state == that.state && getId() == that.getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return getId();
+    }
+}
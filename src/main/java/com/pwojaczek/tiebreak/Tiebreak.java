@@ -0,0 +1,28 @@
+package com.pwojaczek.tiebreak;
+
+/**
+ * Tiebreaks of players with equal score. Free points don't count as games, so they add nothing to tiebreaks
+ * based on opponents - only to player's own score and progressive score.
+ */
+public enum Tiebreak {
+    /**
+     * Sum of scores of all opponents.
+     */
+    BUCHHOLZ,
+    /**
+     * Buchholz without the lowest scoring opponent.
+     */
+    BUCHHOLZ_CUT_1,
+    /**
+     * Buchholz without the lowest and the highest scoring opponent.
+     */
+    MEDIAN_BUCHHOLZ,
+    /**
+     * Sum of scores of beaten opponents and half of scores of drawn opponents.
+     */
+    SONNEBORN_BERGER,
+    /**
+     * Sum of player's scores after every round.
+     */
+    PROGRESSIVE
+}
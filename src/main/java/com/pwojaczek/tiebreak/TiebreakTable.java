@@ -0,0 +1,232 @@
+package com.pwojaczek.tiebreak;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.OutcomeEnum;
+import com.pwojaczek.Player;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Tiebreaks of all players, kept in arrays indexed by player id and updated with every recorded result.
+ * When score of a player changes, the change is pushed to Buchholz and Sonneborn-Berger of his opponents,
+ * so a result costs as much as count of games of its players and standings never walk the whole history.
+ * Cut-1 and Median-Buchholz need the lowest and the highest opponent, so they are refreshed once per round.
+ * Scores and tiebreaks are kept as half points, Sonneborn-Berger as quarter points.
+ * Results of a player have to be recorded in order of his match history, as rounds are played.
+ */
+public class TiebreakTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] halfPoints = new int[INITIAL_CAPACITY];
+    private int[] scoredGames = new int[INITIAL_CAPACITY];
+    private long[] buchholz = new long[INITIAL_CAPACITY];
+    private long[] buchholzCut1 = new long[INITIAL_CAPACITY];
+    private long[] medianBuchholz = new long[INITIAL_CAPACITY];
+    private long[] sonnebornBerger = new long[INITIAL_CAPACITY];
+    private long[] progressive = new long[INITIAL_CAPACITY];
+
+    /**
+     * Method records result of a match, which is already in match history of its players.
+     */
+    public void recordResult(Match match) {
+        Player player1 = match.getPlayer1();
+        OutcomeEnum outcome = match.getOutcome();
+        if (outcome == OutcomeEnum.FREE_POINT) {
+            ensureCapacity(player1.getId());
+            addPoints(player1, 2);
+            return;
+        }
+        Player player2 = match.getPlayer2();
+        ensureCapacity(Math.max(player1.getId(), player2.getId()));
+        int player1Points = halfPointsOf(outcome, true);
+        int player2Points = halfPointsOf(outcome, false);
+        linkGame(player1, player2, player1Points);
+        linkGame(player2, player1, player2Points);
+        addPoints(player1, player1Points);
+        addPoints(player2, player2Points);
+    }
+
+    /**
+     * Method closes a round - adds current scores to progressive scores and refreshes Cut-1 and Median-Buchholz.
+     */
+    public void finishRound(List<Player> players) {
+        for (Player player : players) {
+            int id = player.getId();
+            ensureCapacity(id);
+            progressive[id] += halfPoints[id];
+            refreshCuts(player);
+        }
+    }
+
+    /**
+     * Method computes tiebreaks of all players again from finished rounds, with the same result as if every result
+     * was recorded and every round finished one by one. Scores are summed round by round and every game is visited
+     * once more at the end, instead of pushing every result to all previous opponents - it's used when the whole
+     * tournament is restored at once. Games in match histories after finished rounds are not counted.
+     */
+    public void rebuild(List<Player> players, List<List<Match>> rounds) {
+        int capacity = INITIAL_CAPACITY;
+        for (Player player : players) {
+            capacity = Math.max(capacity, player.getId() + 1);
+        }
+        halfPoints = new int[capacity];
+        scoredGames = new int[capacity];
+        buchholz = new long[capacity];
+        buchholzCut1 = new long[capacity];
+        medianBuchholz = new long[capacity];
+        sonnebornBerger = new long[capacity];
+        progressive = new long[capacity];
+        for (List<Match> matches : rounds) {
+            for (Match match : matches) {
+                int player1 = match.getPlayer1().getId();
+                if (match.getOutcome() == OutcomeEnum.FREE_POINT) {
+                    halfPoints[player1] += 2;
+                    continue;
+                }
+                int player2 = match.getPlayer2().getId();
+                halfPoints[player1] += halfPointsOf(match.getOutcome(), true);
+                halfPoints[player2] += halfPointsOf(match.getOutcome(), false);
+                scoredGames[player1]++;
+                scoredGames[player2]++;
+            }
+            for (Player player : players) {
+                progressive[player.getId()] += halfPoints[player.getId()];
+            }
+        }
+        for (Player player : players) {
+            int id = player.getId();
+            List<Match> history = player.getMatchHistory();
+            for (int i = 0; i < scoredGames[id]; i++) {
+                Match match = history.get(i);
+                boolean white = match.getPlayer1() == player;
+                int opponentPoints = halfPoints[white ? match.getPlayer2().getId() : match.getPlayer1().getId()];
+                buchholz[id] += opponentPoints;
+                sonnebornBerger[id] += (long) halfPointsOf(match.getOutcome(), white) * opponentPoints;
+            }
+            refreshCuts(player);
+        }
+    }
+
+    public float getBuchholz(Player player) {
+        return value(Tiebreak.BUCHHOLZ, player.getId()) / 2f;
+    }
+
+    public float getBuchholzCut1(Player player) {
+        return value(Tiebreak.BUCHHOLZ_CUT_1, player.getId()) / 2f;
+    }
+
+    public float getMedianBuchholz(Player player) {
+        return value(Tiebreak.MEDIAN_BUCHHOLZ, player.getId()) / 2f;
+    }
+
+    public float getSonnebornBerger(Player player) {
+        return value(Tiebreak.SONNEBORN_BERGER, player.getId()) / 4f;
+    }
+
+    public float getProgressive(Player player) {
+        return value(Tiebreak.PROGRESSIVE, player.getId()) / 2f;
+    }
+
+    /**
+     * Comparator of standings - players with higher score first, ties are resolved by tiebreaks in given order.
+     */
+    public Comparator<Player> standingsComparator(List<Tiebreak> tiebreaks) {
+        Comparator<Player> comparator = Comparator.comparing(Player::getScore).reversed();
+        for (Tiebreak tiebreak : tiebreaks) {
+            comparator = comparator.thenComparing((player1, player2) ->
+                    Long.compare(value(tiebreak, player2.getId()), value(tiebreak, player1.getId())));
+        }
+        return comparator;
+    }
+
+    private long value(Tiebreak tiebreak, int id) {
+        if (id >= halfPoints.length) {
+            return 0;
+        }
+        switch (tiebreak) {
+            case BUCHHOLZ:
+                return buchholz[id];
+            case BUCHHOLZ_CUT_1:
+                return buchholzCut1[id];
+            case MEDIAN_BUCHHOLZ:
+                return medianBuchholz[id];
+            case SONNEBORN_BERGER:
+                return sonnebornBerger[id];
+            default:
+                return progressive[id];
+        }
+    }
+
+    /**
+     * Method adds new game to player's tiebreaks with current score of the opponent.
+     * Later changes of opponent's score come through addPoints.
+     */
+    private void linkGame(Player player, Player opponent, int points) {
+        int id = player.getId();
+        int opponentPoints = halfPoints[opponent.getId()];
+        buchholz[id] += opponentPoints;
+        sonnebornBerger[id] += (long) points * opponentPoints;
+        scoredGames[id] = Math.min(scoredGames[id] + 1, player.getMatchHistory().size());
+    }
+
+    /**
+     * Method adds points to player's score and pushes them to tiebreaks of opponents in his scored games.
+     */
+    private void addPoints(Player player, int points) {
+        int id = player.getId();
+        halfPoints[id] += points;
+        List<Match> history = player.getMatchHistory();
+        for (int i = 0; i < scoredGames[id]; i++) {
+            Match match = history.get(i);
+            boolean white = match.getPlayer1() == player;
+            int opponent = white ? match.getPlayer2().getId() : match.getPlayer1().getId();
+            buchholz[opponent] += points;
+            sonnebornBerger[opponent] += (long) points * halfPointsOf(match.getOutcome(), !white);
+        }
+    }
+
+    private void refreshCuts(Player player) {
+        int id = player.getId();
+        List<Match> history = player.getMatchHistory();
+        int games = scoredGames[id];
+        int lowest = Integer.MAX_VALUE;
+        int highest = 0;
+        for (int i = 0; i < games; i++) {
+            Match match = history.get(i);
+            int opponentPoints = halfPoints[match.getPlayer1() == player ? match.getPlayer2().getId() : match.getPlayer1().getId()];
+            lowest = Math.min(lowest, opponentPoints);
+            highest = Math.max(highest, opponentPoints);
+        }
+        buchholzCut1[id] = games > 0 ? buchholz[id] - lowest : 0;
+        medianBuchholz[id] = games > 1 ? buchholz[id] - lowest - highest : 0;
+    }
+
+    private static int halfPointsOf(OutcomeEnum outcome, boolean player1) {
+        if (outcome == OutcomeEnum.DRAW) {
+            return 1;
+        }
+        if (outcome == OutcomeEnum.WIN) {
+            return player1 ? 2 : 0;
+        }
+        if (outcome == OutcomeEnum.LOSS) {
+            return player1 ? 0 : 2;
+        }
+        return 0;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < halfPoints.length) {
+            return;
+        }
+        int capacity = Math.max(halfPoints.length * 2, id + 1);
+        halfPoints = Arrays.copyOf(halfPoints, capacity);
+        scoredGames = Arrays.copyOf(scoredGames, capacity);
+        buchholz = Arrays.copyOf(buchholz, capacity);
+        buchholzCut1 = Arrays.copyOf(buchholzCut1, capacity);
+        medianBuchholz = Arrays.copyOf(medianBuchholz, capacity);
+        sonnebornBerger = Arrays.copyOf(sonnebornBerger, capacity);
+        progressive = Arrays.copyOf(progressive, capacity);
+    }
+}
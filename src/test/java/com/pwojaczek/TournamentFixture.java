@@ -0,0 +1,58 @@
+package com.pwojaczek;
+
+import com.pwojaczek.output.NoOpOutputSink;
+import com.pwojaczek.pairing.PairingEngine;
+import com.pwojaczek.random.RandomStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixture of AUTOMATIC tournaments for tests. Outcomes are drawn from seeded random,
+ * so the same field, engine and seed give the same tournament on every run.
+ */
+public final class TournamentFixture {
+
+    private TournamentFixture() {
+    }
+
+    public static List<Player> players(int count) {
+        List<Player> players = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            players.add(new Player(id, "player" + id));
+        }
+        return players;
+    }
+
+    /**
+     * Method creates AUTOMATIC tournament of given players with seeded random and without output.
+     */
+    public static MatchService tournament(PairingEngine engine, List<Player> players, int rounds, long seed) {
+        MatchService matchService = new MatchService(engine, rounds, TournamentType.AUTOMATIC, players);
+        matchService.setRandom(RandomStrategy.SPLITTABLE.create(seed));
+        matchService.setOutput(new NoOpOutputSink());
+        return matchService;
+    }
+
+    /**
+     * Method plays the whole tournament and returns its pairings with outcomes as ids of players by rounds and boards,
+     * followed by final scores of players.
+     */
+    public static List<String> play(MatchService matchService) {
+        matchService.playTournament();
+        List<String> pairings = new ArrayList<>();
+        for (List<Match> matches : matchService.getFinishedRounds()) {
+            StringBuilder round = new StringBuilder();
+            for (Match match : matches) {
+                round.append(match.getPlayer1().getId()).append('-')
+                        .append(match.getPlayer2() == null ? "free" : match.getPlayer2().getId())
+                        .append(':').append(match.getOutcome()).append(' ');
+            }
+            pairings.add(round.toString());
+        }
+        for (Player player : matchService.getPlayers()) {
+            pairings.add(player.getId() + "=" + player.getScore());
+        }
+        return pairings;
+    }
+}
@@ -0,0 +1,54 @@
+package com.pwojaczek.export;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChannelTextWriterTest {
+    private static final String NAME = "Za\u017C\u00F3\u0142\u0107 \u6771\u4EAC \uD83D\uDE00\uD834\uDD1E";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void surrogatePairsAreEncodedAsCodePoints() throws IOException {
+        assertEquals(NAME, write(writer -> writer.append(NAME)));
+        assertEquals(NAME, write(writer -> NAME.codePoints().forEach(writer::appendCodePoint)));
+    }
+
+    @Test
+    public void unpairedSurrogateIsWrittenAsQuestionMark() throws IOException {
+        assertEquals("a?b?", write(writer -> writer.append("a\uDE00b").append('\uD83D')));
+    }
+
+    @Test
+    public void leftAlignedTextIsCutByCodePoints() throws IOException {
+        assertEquals("\uD83D\uDE00\uD834\uDD1E |", write(writer -> writer.appendLeft("\uD83D\uDE00\uD834\uDD1E", 3).append('|')));
+        assertEquals("\uD83D\uDE00|", write(writer -> writer.appendLeft("\uD83D\uDE00\uD834\uDD1E", 1).append('|')));
+        assertEquals("Za\u017C|", write(writer -> writer.appendLeft(NAME, 3).append('|')));
+    }
+
+    /**
+     * Method writes text through writer with buffer smaller than a code point, so it's flushed inside of sequences.
+     */
+    private String write(Consumer<ChannelTextWriter> text) throws IOException {
+        Path path = folder.newFile().toPath();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ChannelTextWriter writer = new ChannelTextWriter(channel, ByteBuffer.allocateDirect(3));
+            text.accept(writer);
+            writer.flush();
+        }
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,80 @@
+package com.pwojaczek.output;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class AsyncWriterTest {
+
+    @Test
+    public void slowTargetGetsEverythingInOrder() throws IOException {
+        StringWriter target = new StringWriter();
+        StringBuilder expected = new StringBuilder();
+        try (Writer writer = new AsyncWriter(new SlowWriter(target))) {
+            for (int i = 0; i < 200_000; i++) {
+                String line = "line " + i + "\n";
+                writer.write(line);
+                expected.append(line);
+                if (i % 10_000 == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        assertEquals(expected.toString(), target.toString());
+    }
+
+    @Test
+    public void writeAfterCloseThrowsIOException() throws IOException {
+        Writer writer = new AsyncWriter(new StringWriter());
+        writer.close();
+        writer.close();
+        try {
+            writer.write("late");
+            fail("Write after close was accepted");
+        } catch (IOException e) {
+            assertEquals("Writer is closed", e.getMessage());
+        }
+        try {
+            writer.flush();
+            fail("Flush after close was accepted");
+        } catch (IOException e) {
+            assertEquals("Writer is closed", e.getMessage());
+        }
+    }
+
+    /**
+     * Target which sleeps on every write, so the queue of chunks fills up.
+     */
+    private static class SlowWriter extends Writer {
+        private final Writer target;
+
+        SlowWriter(Writer target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            target.write(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.close();
+        }
+    }
+}
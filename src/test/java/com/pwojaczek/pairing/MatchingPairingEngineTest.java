@@ -0,0 +1,169 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.Match;
+import com.pwojaczek.MatchService;
+import com.pwojaczek.Player;
+import com.pwojaczek.TournamentFixture;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class MatchingPairingEngineTest {
+    private final ColorAllocator colorAllocator = new ColorAllocator();
+
+    @Test
+    public void smallFieldsPairAsBruteForceSearch() {
+        for (int size = 4; size <= 12; size += 2) {
+            for (int playedRounds = 1; playedRounds < size - 1; playedRounds++) {
+                for (long seed = 1; seed <= 5; seed++) {
+                    List<Player> players = playedField(size, playedRounds, seed);
+                    String field = "size " + size + " after " + playedRounds + " rounds, seed " + seed;
+                    List<Match> expected = pairBruteForce(players);
+                    PairingResult pairingResult = new MatchingPairingEngine().pair(players);
+                    if (expected == null) {
+                        assertFalse(field, pairingResult.isComplete());
+                        continue;
+                    }
+                    assertTrue(field, pairingResult.isComplete());
+                    assertEquals(field, describe(expected), describe(pairingResult.getMatches()));
+                    assertLegal(field, players, pairingResult);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void infeasibleFieldReturnsIncompletePairing() {
+        List<Player> players = TournamentFixture.players(4);
+        Player first = players.get(0);
+        addGame(first, players.get(1));
+        addGame(players.get(2), first);
+        addGame(first, players.get(3));
+        addGame(players.get(2), players.get(3));
+
+        PairingResult pairingResult = new MatchingPairingEngine().pair(players);
+
+        assertFalse(pairingResult.isComplete());
+        assertEquals(1, pairingResult.getMatches().size());
+        assertTrue(pairingResult.getUnpairedPlayers().contains(first));
+        assertLegal("infeasible field", players, pairingResult);
+    }
+
+    @Test
+    public void fieldWithoutEdgesLeavesEveryoneUnpaired() {
+        List<Player> players = TournamentFixture.players(2);
+        addGame(players.get(0), players.get(1));
+
+        PairingResult pairingResult = new MatchingPairingEngine().pair(players);
+
+        assertTrue(pairingResult.getMatches().isEmpty());
+        assertEquals(players, pairingResult.getUnpairedPlayers());
+    }
+
+    /**
+     * Method plays given count of rounds of a tournament and returns its players in random order,
+     * so the engine is checked also on orders other than by score.
+     */
+    private static List<Player> playedField(int size, int playedRounds, long seed) {
+        List<Player> players = TournamentFixture.players(size);
+        MatchService matchService = TournamentFixture.tournament(new MatchingPairingEngine(), players, playedRounds, seed);
+        TournamentFixture.play(matchService);
+        List<Player> shuffled = new ArrayList<>(players);
+        Collections.shuffle(shuffled, new Random(seed));
+        return shuffled;
+    }
+
+    private static void addGame(Player white, Player black) {
+        Match match = new Match(white, black);
+        white.addMatch(match);
+        black.addMatch(match);
+    }
+
+    /**
+     * Method checks that every player is either paired once or left unpaired, without rematches
+     * and without a third game in a row with the same color.
+     */
+    private static void assertLegal(String field, List<Player> players, PairingResult pairingResult) {
+        Set<Player> seen = new HashSet<>(pairingResult.getUnpairedPlayers());
+        assertEquals(field, pairingResult.getUnpairedPlayers().size(), seen.size());
+        for (Match match : pairingResult.getMatches()) {
+            Player white = match.getPlayer1();
+            Player black = match.getPlayer2();
+            assertNotNull(field, black);
+            assertTrue(field, seen.add(white));
+            assertTrue(field, seen.add(black));
+            assertFalse(field + " rematch " + describe(match), white.playedWith(black));
+            assertFalse(field + " third white of " + white.getId(), white.getGamesPlayed() >= 2 && white.getLastColors() == 3);
+            assertFalse(field + " third black of " + black.getId(), black.getGamesPlayed() >= 2 && black.getLastColors() == 0);
+        }
+        assertEquals(field, new HashSet<>(players), seen);
+    }
+
+    /**
+     * Brute-force search of the original pairing: the first player is paired with the first opponent
+     * after which the rest of the field can still be paired. Returns null if there is no complete pairing.
+     */
+    private List<Match> pairBruteForce(List<Player> players) {
+        List<Player> remaining = new ArrayList<>(players);
+        List<Match> matches = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            Player player1 = remaining.remove(0);
+            Match match = null;
+            for (int i = 0; i < remaining.size() && match == null; i++) {
+                Player player2 = remaining.get(i);
+                int colorSetup = colorAllocator.getPlayersColorMatchup(player1, player2);
+                List<Player> rest = new ArrayList<>(remaining);
+                rest.remove(i);
+                if (!player1.playedWith(player2) && colorSetup != -1 && isPairingPossible(rest)) {
+                    remaining.remove(i);
+                    match = colorAllocator.createMatchBasedOnSetup(player1, player2, colorSetup);
+                }
+            }
+            if (match == null) {
+                return null;
+            }
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    private boolean isPairingPossible(List<Player> players) {
+        if (players.isEmpty()) {
+            return true;
+        }
+        Player player1 = players.get(0);
+        for (int i = 1; i < players.size(); i++) {
+            Player player2 = players.get(i);
+            if (!player1.playedWith(player2) && colorAllocator.getPlayersColorMatchup(player1, player2) != -1) {
+                List<Player> rest = new ArrayList<>(players.subList(1, players.size()));
+                rest.remove(player2);
+                if (isPairingPossible(rest)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<String> describe(List<Match> matches) {
+        List<String> pairs = new ArrayList<>();
+        for (Match match : matches) {
+            pairs.add(describe(match));
+        }
+        return pairs;
+    }
+
+    private static String describe(Match match) {
+        return match.getPlayer1().getId() + "-" + match.getPlayer2().getId();
+    }
+}
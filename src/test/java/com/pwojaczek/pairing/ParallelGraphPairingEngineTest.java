@@ -0,0 +1,47 @@
+package com.pwojaczek.pairing;
+
+import com.pwojaczek.TournamentFixture;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelGraphPairingEngineTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void smallChunksPairAsSequentialEngine() {
+        for (long seed = 1; seed <= 20; seed++) {
+            assertEquals("seed " + seed, play(new MatchingPairingEngine(), 40, 7, seed),
+                    play(new ParallelGraphPairingEngine(POOL, 4, 64, new ColorAllocator()), 40, 7, seed));
+        }
+    }
+
+    @Test
+    public void oddScoreGroupsPairAsSequentialEngine() {
+        for (long seed = 1; seed <= 20; seed++) {
+            assertEquals("seed " + seed, play(new MatchingPairingEngine(), 41, 9, seed),
+                    play(new ParallelGraphPairingEngine(POOL, 1, 3, new ColorAllocator()), 41, 9, seed));
+        }
+    }
+
+    @Test
+    public void defaultChunksPairAsSequentialEngine() {
+        for (long seed = 1; seed <= 3; seed++) {
+            assertEquals("seed " + seed, play(new MatchingPairingEngine(), 1500, 6, seed),
+                    play(new ParallelGraphPairingEngine(), 1500, 6, seed));
+        }
+    }
+
+    private static List<String> play(PairingEngine engine, int fieldSize, int rounds, long seed) {
+        return TournamentFixture.play(TournamentFixture.tournament(engine, TournamentFixture.players(fieldSize), rounds, seed));
+    }
+}
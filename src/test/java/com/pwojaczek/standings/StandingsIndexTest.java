@@ -0,0 +1,32 @@
+package com.pwojaczek.standings;
+
+import com.pwojaczek.Player;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class StandingsIndexTest {
+
+    @Test
+    public void limitedRankingIsPrefixOfRanking() {
+        Random random = new Random(1);
+        List<Player> players = new ArrayList<>();
+        for (int id = 0; id < 500; id++) {
+            Player player = new Player(id, "player" + id);
+            player.setScore(random.nextInt(10) / 2f);
+            player.setRating(1000 + random.nextInt(20));
+            players.add(player);
+        }
+        StandingsIndex index = new StandingsIndex(players);
+        Comparator<Player> byRating = Comparator.comparingInt(Player::getRating).reversed();
+        List<Player> ranking = index.ranking(byRating);
+        for (int limit : new int[]{0, 1, 7, 49, 50, 51, 250, 499, 500, 1000}) {
+            assertEquals("limit " + limit, ranking.subList(0, Math.min(limit, ranking.size())), index.ranking(byRating, limit));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.pwojaczek.store;
+
+import com.pwojaczek.MatchService;
+import com.pwojaczek.Player;
+import com.pwojaczek.TournamentFixture;
+import com.pwojaczek.pairing.MatchingPairingEngine;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactTournamentStateTest {
+
+    @Test
+    public void viewsAreReused() {
+        CompactTournamentState state = new CompactTournamentState(2, 1);
+        state.addPlayer("a");
+        state.addPlayer("b");
+        int match = state.addMatch(0, 1);
+        assertSame(state.player(0), state.player(0));
+        assertSame(state.player(1), state.players().get(1));
+        assertSame(state.match(match), state.match(match));
+        assertSame(state.player(0), state.match(match).getPlayer1());
+    }
+
+    @Test
+    public void playedWithIsSymmetric() {
+        CompactTournamentState state = new CompactTournamentState(300, 2);
+        for (int i = 0; i < 300; i++) {
+            state.addPlayer("player" + i);
+        }
+        for (int i = 0; i < 300; i += 2) {
+            state.addMatch(i, i + 1);
+            state.addMatch((i + 3) % 300, i);
+        }
+        state.addFreePoint(1);
+        for (int i = 0; i < 300; i += 2) {
+            assertTrue(state.playedWith(i, i + 1));
+            assertTrue(state.playedWith(i + 1, i));
+            assertTrue(state.playedWith(i, (i + 3) % 300));
+            assertFalse(state.playedWith(i, (i + 2) % 300));
+        }
+    }
+
+    @Test
+    public void tournamentOnViewsPairsAsOnPlayers() {
+        for (long seed = 1; seed <= 10; seed++) {
+            assertEquals("seed " + seed, play(41, seed, false), play(41, seed, true));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void moreRoundsThanMaxGamesAreRejected() {
+        new CompactTournamentState(200, CompactTournamentState.MAX_GAMES + 1);
+    }
+
+    private static List<String> play(int size, long seed, boolean compact) {
+        MatchService matchService = TournamentFixture.tournament(new MatchingPairingEngine(), TournamentFixture.players(size), 7, seed);
+        if (compact) {
+            matchService.useCompactState();
+        }
+        List<String> pairings = TournamentFixture.play(matchService);
+        for (Player player : matchService.getPlayers()) {
+            assertEquals(compact, player instanceof PlayerView);
+        }
+        return pairings;
+    }
+}